@@ -0,0 +1,116 @@
+package com.geraldmaloney.elevator;
+
+import com.geraldmaloney.elevator.clock.VirtualClock;
+import com.geraldmaloney.elevator.display.DisplayAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of the control loop at different building heights and queue depths.
+ * Lives in the elevator package so it can reach the protected scheduling methods directly.
+ *
+ * Run with allocation tracking: java -jar target/benchmarks.jar PassengerElevatorBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PassengerElevatorBenchmark {
+
+    @Param({"13", "64", "256"})
+    public int floors;
+
+    @Param({"1", "8", "32"})
+    public int queueSize;
+
+    private PassengerElevator elevator;
+    private int[] freeFloors;               // Floors not in the queue, cycled through by pressFloor
+    private int nextFreeFloor;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));    // Measure the logic, not the terminal
+
+        DisplayAdapter display = new RecordingDisplay();
+        elevator = new PassengerElevator(null, display, new VirtualClock(), 0, 1, floors - 1);
+
+        // Car sits mid-building heading up, with a random spread of requests on both sides
+        elevator.currentFloor = floors / 2;
+        elevator.elevatorStatus = ElevatorStatus.MOVING_UP;
+        Random random = new Random(42);
+        int queued = Math.min(queueSize, floors - 2);
+        while (elevator.requestQueue.size() < queued) {
+            int floor = random.nextInt(floors);
+            if (floor != elevator.currentFloor) {
+                elevator.pressFloor(floor);
+            }
+        }
+
+        int free = 0;
+        freeFloors = new int[floors];
+        for (int floor = 0; floor < floors; floor++) {
+            if (floor != elevator.currentFloor && !elevator.requestQueue.contains(floor)) {
+                freeFloors[free++] = floor;
+            }
+        }
+        freeFloors = java.util.Arrays.copyOf(freeFloors, Math.max(1, free));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    /**
+     * Presses a floor that isn't queued yet, then takes it back out so the queue depth stays fixed.
+     */
+    @Benchmark
+    public int pressFloor() {
+        int floor = freeFloors[nextFreeFloor];
+        nextFreeFloor = (nextFreeFloor + 1) % freeFloors.length;
+        int primary = elevator.primaryDestination;
+        elevator.pressFloor(floor);
+        elevator.requestQueue.remove(floor);
+        elevator.primaryDestination = primary;
+        return floor;
+    }
+
+    @Benchmark
+    public int findNextFloorOnTheWay() {
+        return elevator.findNextFloorOnTheWay();
+    }
+
+    @Benchmark
+    public int reassignPrimaryDestination() {
+        elevator.primaryDestination = -1;   // Force a full recalculation every call
+        elevator.reassignPrimaryDestination();
+        return elevator.primaryDestination;
+    }
+
+    @Benchmark
+    public void printStatus() {
+        elevator.printStatus();
+    }
+
+    /**
+     * Keeps the rendered lines reachable so the JIT can't drop the string building.
+     */
+    static final class RecordingDisplay implements DisplayAdapter {
+        String line1;
+        String line2;
+
+        @Override
+        public void updateDisplay(String line1, String line2) {
+            this.line1 = line1;
+            this.line2 = line2;
+        }
+    }
+}
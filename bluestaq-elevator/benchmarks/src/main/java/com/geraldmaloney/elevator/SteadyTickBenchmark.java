@@ -0,0 +1,85 @@
+package com.geraldmaloney.elevator;
+
+import com.geraldmaloney.elevator.clock.VirtualClock;
+import com.geraldmaloney.elevator.display.AsyncDisplayAdapter;
+import com.geraldmaloney.elevator.display.DisplayAdapter;
+import com.geraldmaloney.elevator.display.TimedDisplayAdapter;
+import com.geraldmaloney.elevator.metrics.ElevatorMetrics;
+import com.geraldmaloney.elevator.metrics.MetricsRegistry;
+import com.geraldmaloney.elevator.replay.RecordingInputProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One control loop tick as Main runs it while nothing is changing: move, print status, update the LCD
+ * (through the async and timing decorators) and poll the recorded input. The target is 0 B/op in
+ * gc.alloc.rate.norm - anything more is garbage the Pi collects every second.
+ *
+ * Run with: java -jar target/benchmarks.jar SteadyTickBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SteadyTickBenchmark {
+
+    /**
+     * IDLE: parked at the lobby with no calls. DOORS: parked with a door cycle in progress, so every tick
+     * takes the "still busy" path.
+     */
+    @Param({"IDLE", "DOORS"})
+    public String scenario;
+
+    private PassengerElevator elevator;
+    private RecordingInputProvider input;
+    private AsyncDisplayAdapter display;
+    private ElevatorMetrics metrics;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        MetricsRegistry registry = new MetricsRegistry();
+        metrics = new ElevatorMetrics(registry);
+        DisplayAdapter lcd = (line1, line2) -> { };
+        display = new AsyncDisplayAdapter(new TimedDisplayAdapter(lcd, metrics.displayUpdate));
+        input = new RecordingInputProvider(() -> null, new OutputStreamWriter(OutputStream.nullOutputStream()));
+        elevator = new PassengerElevator(input, display, new VirtualClock());
+        input.setElevator(elevator);
+        metrics.attach(elevator, registry);
+
+        if (scenario.equals("DOORS")) {
+            elevator.openDoor();        // Starts the timed door cycle; virtual time never advances, so it stays in progress
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        display.close();
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String tick() {
+        long started = System.nanoTime();
+        elevator.goToNextFloor();
+        metrics.goToNextFloor.recordSince(started);
+
+        started = System.nanoTime();
+        elevator.printStatus();
+        metrics.printStatus.recordSince(started);
+
+        started = System.nanoTime();
+        String next = input.getNextInput();
+        metrics.inputPoll.recordSince(started);
+        return next;
+    }
+}
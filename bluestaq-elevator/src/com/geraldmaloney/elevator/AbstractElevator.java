@@ -1,15 +1,39 @@
 package com.geraldmaloney.elevator;
 
 import java.util.*;
+import com.geraldmaloney.elevator.clock.ElevatorClock;
+import com.geraldmaloney.elevator.clock.ScheduledAction;
+import com.geraldmaloney.elevator.clock.SystemClock;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.dispatch.DispatchStrategy;
+import com.geraldmaloney.elevator.display.ConsoleBuffer;
+import com.geraldmaloney.elevator.event.ElevatorEventBus;
+import com.geraldmaloney.elevator.event.ElevatorEventListener;
+import com.geraldmaloney.elevator.event.ElevatorEventType;
 import com.geraldmaloney.elevator.input.InputProvider;
+import com.geraldmaloney.elevator.log.Log;
 
 public abstract class AbstractElevator {
 
-    // Constants for floor numbers
+    // Default floor numbers - used when no building file is given (see Building)
     public static final int MIN_FLOOR_NUMBER = 0;
     public static final int LOBBY_FLOOR_NUMBER = 1;
     public static final int MAX_FLOOR_NUMBER = 12;
 
+    // Door cycle timing - each step is a timed transition, in normal service and in emergencies
+    public static final long DOOR_MOTION_MS = 1500;         // Doors opening or closing
+    public static final long DOOR_HOLD_MS = 1500;           // Doors held open for riders
+    public static final long DOOR_SETTLE_MS = 1500;         // Pause after the doors close before moving off
+    private static final long RESCUE_PAUSE_MS = 2500;       // Fire rescue exit message stays up this long before the screen clears
+
+    // Floor range of this building
+    protected final Building building;                  // Labels, served floors and travel times
+    protected final int minFloor;
+    protected final int lobbyFloor;
+    protected final int maxFloor;
+    protected final StatusLabels labels;                // Floor and status text, rendered once for this building
+    protected final ConsoleBuffer console = new ConsoleBuffer();   // Garbage-free output for messages printed every tick
+
     // Elevator system state
     protected int currentFloor;
     protected int primaryDestination = -1;
@@ -17,17 +41,63 @@ public abstract class AbstractElevator {
     protected ElevatorStatus elevatorStatus;
     protected DoorStatus doorStatus;
     protected ElevatorRunMode runMode;
-    protected Queue<Integer> requestQueue;
+    protected final FloorRequestSet requestQueue;       // Requested floors (car calls), one bit per floor
+    protected final FloorRequestSet hallCallsUp;        // Landings where someone pressed Up
+    protected final FloorRequestSet hallCallsDown;      // Landings where someone pressed Down
     protected final InputProvider inputProvider;
-
-    // Constructor - initializes elevator at Lobby with system defaults
+    protected final ElevatorClock clock;                // Time source for doors, travel and arrivals
+    private final List<ArrivalListener> arrivalListeners = new ArrayList<>();
+    protected final ElevatorEventBus events = new ElevatorEventBus(this);  // Typed state changes for logs and monitors
+    private ScheduledAction pendingTransition;          // Timed travel or door step in progress, null when idle
+    private DoorStep doorStep = DoorStep.NONE;          // Which part of the door cycle the pending transition is
+    private long doorStepStartMs;                       // When that part started (a reopen reverses only what has closed)
+    private DoorDwell dwell;                            // Stop timing: fixed, or learned per floor
+    private int recallFloor = FloorRequestSet.NONE;     // Basement or roof an earthquake/hurricane recall is heading for
+    protected DispatchStrategy dispatch;                // Order the calls are served in (DEADLINE, LOOK, ...)
+    private volatile ElevatorSnapshot snapshot;         // Latest published state, safe to read from any thread
+
+    // Constructor - initializes elevator at Lobby with system defaults, running on the wall clock
     public AbstractElevator(InputProvider inputProvider) {
+        this(inputProvider, new SystemClock());
+    }
+
+    // Constructor - same defaults, but timed actions run on the given clock (e.g. VirtualClock for simulation)
+    public AbstractElevator(InputProvider inputProvider, ElevatorClock clock) {
+        this(inputProvider, clock, MIN_FLOOR_NUMBER, LOBBY_FLOOR_NUMBER, MAX_FLOOR_NUMBER);
+    }
+
+    // Constructor - custom floor range for taller (or shorter) buildings. Elevator starts at the lobby.
+    public AbstractElevator(InputProvider inputProvider, ElevatorClock clock, int minFloor, int lobbyFloor, int maxFloor) {
+        this(inputProvider, clock, Building.standard(minFloor, lobbyFloor, maxFloor));
+    }
+
+    // Constructor - building loaded from a descriptor file (labels, skipped floors, express zones, travel times)
+    public AbstractElevator(InputProvider inputProvider, ElevatorClock clock, Building building) {
         this.inputProvider = inputProvider;
-        this.currentFloor = LOBBY_FLOOR_NUMBER;
+        this.clock = clock;
+        this.building = building;
+        this.minFloor = building.getMinFloor();
+        this.lobbyFloor = building.getLobbyFloor();
+        this.maxFloor = building.getMaxFloor();
+        this.labels = new StatusLabels(building);
+        this.currentFloor = lobbyFloor;
         this.elevatorStatus = ElevatorStatus.STOPPED;
         this.doorStatus = DoorStatus.CLOSED;
         this.runMode = ElevatorRunMode.ON;
-        this.requestQueue = new LinkedList<>();
+        this.requestQueue = new FloorRequestSet(minFloor, maxFloor);
+        this.hallCallsUp = new FloorRequestSet(minFloor, maxFloor);
+        this.hallCallsDown = new FloorRequestSet(minFloor, maxFloor);
+        this.dwell = new DoorDwell(DwellMode.fromSystemProperty(), building);
+        this.dispatch = DispatchAlgorithm.fromSystemProperty().create();
+        publishSnapshot();
+    }
+
+    /**
+     * Door cycle steps, so OPEN and CLOSE know what they are interrupting.
+     * EMERGENCY marks a step of an emergency sequence; emergency input waits until it is done.
+     */
+    private enum DoorStep {
+        NONE, OPENING, HOLDING, CLOSING, SETTLING, EMERGENCY
     }
 
     /**
@@ -41,78 +111,444 @@ public abstract class AbstractElevator {
      */
     public abstract void pressFloor(int floor);
 
+    /**
+     * Called when someone presses Up or Down on a landing. The car stops there on a sweep in that direction.
+     */
+    public abstract void pressHallCall(int floor, HallCallDirection direction);
+
     /**
      * Called to display current elevator state and user interface.
      */
     public abstract void printStatus();
 
+    /**
+     * @return the state as of the last transition - the only accessor safe to call off the control thread
+     */
+    public ElevatorSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publishes a fresh snapshot if the state has changed since the last one.
+     * Called after every state change; costs a few compares and no allocation when nothing changed.
+     */
+    protected void publishSnapshot() {
+        ElevatorSnapshot last = snapshot;
+        if (last != null && last.matches(currentFloor, primaryDestination, elevatorStatus, doorStatus, runMode,
+                requestQueue, hallCallsUp, hallCallsDown)) {
+            return;
+        }
+        snapshot = new ElevatorSnapshot(clock.currentTimeMillis(), currentFloor, primaryDestination,
+                elevatorStatus, doorStatus, runMode, ElevatorSnapshot.floorsOf(requestQueue),
+                ElevatorSnapshot.floorsOf(hallCallsUp), ElevatorSnapshot.floorsOf(hallCallsDown));
+    }
+
+    public Building getBuilding() {
+        return building;
+    }
+
+    public DoorDwell getDoorDwell() {
+        return dwell;
+    }
+
+    /**
+     * Replaces the stop timing (and forgets anything learned). Call before the first tick.
+     */
+    public void setDwellMode(DwellMode mode) {
+        this.dwell = new DoorDwell(mode, building);
+    }
+
+    public DispatchStrategy getDispatchStrategy() {
+        return dispatch;
+    }
+
+    /**
+     * Swaps the scheduling engine. Safe between ticks; the new engine picks up the calls already queued.
+     */
+    public void setDispatchStrategy(DispatchStrategy dispatch) {
+        this.dispatch = dispatch;
+    }
+
+    public int getMinFloor() {
+        return minFloor;
+    }
+
+    public int getLobbyFloor() {
+        return lobbyFloor;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    // Live state - read on the control thread only; other threads use getSnapshot()
+    public int getCurrentFloor() {
+        return currentFloor;
+    }
+
+    public int getPrimaryDestination() {
+        return primaryDestination;
+    }
+
+    public ElevatorStatus getElevatorStatus() {
+        return elevatorStatus;
+    }
+
+    public DoorStatus getDoorStatus() {
+        return doorStatus;
+    }
+
+    public ElevatorRunMode getRunMode() {
+        return runMode;
+    }
+
+    /**
+     * @return true if the floor has a car call or a hall call in either direction
+     */
+    public boolean hasFloorRequest(int floor) {
+        return requestQueue.contains(floor) || hallCallsUp.contains(floor) || hallCallsDown.contains(floor);
+    }
+
+    /**
+     * @return when the oldest call still waiting at the floor was made (clock time), or FloorRequestSet.NONE
+     */
+    public long getRequestTimeMs(int floor) {
+        return olderOf(requestQueue.requestedAtMs(floor), olderOf(hallCallsUp.requestedAtMs(floor), hallCallsDown.requestedAtMs(floor)));
+    }
+
+    private static long olderOf(long a, long b) {
+        if (a == FloorRequestSet.NONE) {
+            return b;
+        }
+        if (b == FloorRequestSet.NONE) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * @return the car calls - read-only; for dispatch strategies and monitors on the control thread
+     */
+    public FloorRequestSet getCarCalls() {
+        return requestQueue;
+    }
+
+    /**
+     * @return the hall calls in one direction - read-only; for dispatch strategies and monitors on the control thread
+     */
+    public FloorRequestSet getHallCalls(HallCallDirection direction) {
+        return direction == HallCallDirection.UP ? hallCallsUp : hallCallsDown;
+    }
+
+    /**
+     * @return true if the landing has a hall call in the given direction
+     */
+    public boolean hasHallCall(int floor, HallCallDirection direction) {
+        return (direction == HallCallDirection.UP ? hallCallsUp : hallCallsDown).contains(floor);
+    }
+
+    /**
+     * @return number of pending car calls plus hall calls
+     */
+    public int getRequestCount() {
+        return requestQueue.size() + hallCallsUp.size() + hallCallsDown.size();
+    }
+
+    /**
+     * @return true if there is any car call or hall call left to serve
+     */
+    public boolean hasPendingRequests() {
+        return !requestQueue.isEmpty() || !hallCallsUp.isEmpty() || !hallCallsDown.isEmpty();
+    }
+
+    /**
+     * @return true if any car call or hall call is above the floor
+     */
+    public boolean hasRequestsAbove(int floor) {
+        return requestQueue.nextAbove(floor) != FloorRequestSet.NONE
+                || hallCallsUp.nextAbove(floor) != FloorRequestSet.NONE
+                || hallCallsDown.nextAbove(floor) != FloorRequestSet.NONE;
+    }
+
+    /**
+     * @return true if any car call or hall call is below the floor
+     */
+    public boolean hasRequestsBelow(int floor) {
+        return requestQueue.nextBelow(floor) != FloorRequestSet.NONE
+                || hallCallsUp.nextBelow(floor) != FloorRequestSet.NONE
+                || hallCallsDown.nextBelow(floor) != FloorRequestSet.NONE;
+    }
+
+    /**
+     * Registers a listener that is told every time the elevator stops at a requested floor.
+     */
+    public void addArrivalListener(ArrivalListener listener) {
+        arrivalListeners.add(listener);
+    }
+
+    /**
+     * Notifies arrival listeners - called by subclasses when the car stops at a requested floor.
+     */
+    protected void notifyArrival(int floor) {
+        publishEvent(ElevatorEventType.ARRIVED, floor, 0);
+        for (ArrivalListener listener : arrivalListeners) {
+            listener.onArrival(this, floor);
+        }
+    }
+
+    /**
+     * Registers a listener for every typed state change (floors, direction, doors, run mode, calls).
+     */
+    public void addEventListener(ElevatorEventListener listener) {
+        events.addListener(listener);
+    }
+
+    /**
+     * Publishes a typed event stamped with the elevator clock.
+     */
+    protected void publishEvent(ElevatorEventType type, int floor, int value) {
+        publishSnapshot();                      // Listeners on other threads see the state the event describes
+        events.publish(clock.currentTimeMillis(), type, floor, value);
+    }
+
+    /**
+     * Moves the car to a new floor and publishes the change.
+     */
+    protected void setCurrentFloor(int floor) {
+        int previous = currentFloor;
+        currentFloor = floor;
+        publishEvent(ElevatorEventType.FLOOR_CHANGED, floor, previous);
+    }
+
+    /**
+     * Updates the direction of travel, publishing only real changes.
+     */
+    protected void setElevatorStatus(ElevatorStatus status) {
+        if (status != elevatorStatus) {
+            elevatorStatus = status;
+            publishEvent(ElevatorEventType.DIRECTION_CHANGED, currentFloor, status.ordinal());
+        }
+    }
+
+    /**
+     * Updates the door state, publishing only real changes.
+     */
+    protected void setDoorStatus(DoorStatus status) {
+        if (status != doorStatus) {
+            doorStatus = status;
+            publishEvent(ElevatorEventType.DOOR_CHANGED, currentFloor, status.ordinal());
+        }
+    }
+
+    /**
+     * Updates the run mode, publishing only real changes.
+     */
+    protected void setRunMode(ElevatorRunMode mode) {
+        if (mode != runMode) {
+            cancelTransition();                 // Emergencies take over from whatever the car was doing
+            runMode = mode;
+            publishEvent(ElevatorEventType.RUN_MODE_CHANGED, currentFloor, mode.ordinal());
+        }
+    }
+
     /**
      * Prints user-friendly label for special floors.
      */
     public String getCurrentFloorString(int floor) {
-        return switch (floor) {
-            case MIN_FLOOR_NUMBER -> "Basement";
-            case LOBBY_FLOOR_NUMBER -> "Lobby*";
-            case MAX_FLOOR_NUMBER -> "Roof";
-            default -> String.valueOf(floor);
-        };
+        return labels.floor(floor);
     }
 
     /**
-     * Utility method for simulating timed actions (doors, movement, etc.).
+     * @return the clock driving this elevator's timed actions
      */
-    protected void goToSleep(int ms) {
-        try {
-            Thread.sleep(ms);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    public ElevatorClock getClock() {
+        return clock;
     }
 
     /**
-     * Clears the console by printing empty lines for visual separation.
+     * Clears the console for visual separation.
+     * Only an interactive terminal gets the ANSI clear-screen; under systemd there is no screen to clear,
+     * and 50 blank lines would just be 50 empty journal entries.
      */
     public static void clearConsole() {
-        for (int i = 0; i < 50; i++) {
-            System.out.println();
+        if (System.console() != null) {
+            Log.info("\033[H\033[2J");
+        }
+    }
+
+    /**
+     * Schedules the next step of a timed state transition (travel, door cycle) on the elevator clock.
+     * Only one transition is in flight at a time - scheduling one replaces any still pending; the step
+     * usually schedules the one after it.
+     */
+    protected void transition(long delayMs, Runnable next) {
+        if (pendingTransition != null) {
+            pendingTransition.cancel();
+        }
+        doorStep = DoorStep.NONE;
+        pendingTransition = clock.schedule(delayMs, () -> {
+            pendingTransition = null;
+            doorStep = DoorStep.NONE;
+            next.run();
+            publishSnapshot();
+        });
+    }
+
+    /**
+     * Schedules a door cycle step, remembering which one it is.
+     */
+    private void doorTransition(DoorStep step, long delayMs, Runnable next) {
+        transition(delayMs, next);
+        doorStep = step;
+        doorStepStartMs = clock.currentTimeMillis();
+    }
+
+    /**
+     * Schedules a step of an emergency sequence (doors, pauses). Emergency input is refused until it has run.
+     */
+    protected void emergencyTransition(long delayMs, Runnable next) {
+        doorTransition(DoorStep.EMERGENCY, delayMs, next);
+    }
+
+    /**
+     * @return true while the car is part-way through a timed travel or door step
+     */
+    protected boolean isTransitionPending() {
+        return pendingTransition != null;
+    }
+
+    /**
+     * Abandons the transition in flight, leaving the car where it is.
+     */
+    protected void cancelTransition() {
+        if (pendingTransition != null) {
+            pendingTransition.cancel();
+            pendingTransition = null;
         }
+        doorStep = DoorStep.NONE;
     }
 
     /**
-     * Opens the elevator doors if system conditions allow it.
+     * Normal service door cycle: open, hold, close, settle - each step a timed transition.
+     * Returns immediately; the control loop keeps running while the doors move.
+     */
+    private void startDoorCycle() {
+        Log.info("Door is opening...");
+        publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.OPEN.ordinal());
+        doorTransition(DoorStep.OPENING, DOOR_MOTION_MS, this::doorOpened);
+    }
+
+    private void doorOpened() {
+        setDoorStatus(DoorStatus.OPEN);
+        Log.info("Door is open. Please Exit Now.");
+        dwell.doorsOpened(currentFloor, clock.currentTimeMillis());
+        doorTransition(DoorStep.HOLDING, dwell.holdMs(currentFloor), this::startDoorClose);
+    }
+
+    /**
+     * Second half of the door cycle. Also used to shut doors left open when an emergency cut a cycle short.
+     */
+    protected void startDoorClose() {
+        Log.info("Door is closing...");
+        publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.CLOSED.ordinal());
+        doorTransition(DoorStep.CLOSING, DOOR_MOTION_MS, this::doorClosed);
+    }
+
+    private void doorClosed() {
+        setDoorStatus(DoorStatus.CLOSED);
+        Log.info("Door is closed.");
+        doorTransition(DoorStep.SETTLING, dwell.closedSettleMs(), () -> {
+            dwell.stopFinished(clock.currentTimeMillis());
+            Log.info("==================================");
+        });
+    }
+
+    /**
+     * Adaptive dwell: OPEN (or a call at this landing) during the door cycle keeps the doors open.
+     * Holding restarts the hold, closing reverses from where the doors are, a closed car still settling reopens.
+     * While the dispatch strategy has calls waiting elsewhere, the press is refused and the cycle runs out.
+     * @return true if the press was handled (or refused) here
+     */
+    protected boolean reopenDoor() {
+        if (!dwell.isAdaptive() || runMode != ElevatorRunMode.ON || elevatorStatus != ElevatorStatus.STOPPED) {
+            return false;
+        }
+        boolean inCycle = doorStep == DoorStep.HOLDING || doorStep == DoorStep.CLOSING || doorStep == DoorStep.SETTLING;
+        if (inCycle && !dispatch.mayExtendDoorHold(this)) {
+            Log.info("Calls waiting elsewhere - door not held.");
+            return true;
+        }
+        switch (doorStep) {
+            case HOLDING -> {
+                cancelTransition();
+                dwell.reopened();
+                Log.info("Door held open.");
+                doorTransition(DoorStep.HOLDING, dwell.holdMs(currentFloor), this::startDoorClose);
+            }
+            case CLOSING -> {
+                long closedForMs = clock.currentTimeMillis() - doorStepStartMs;
+                cancelTransition();
+                dwell.reopened();
+                Log.info("Door is reopening...");
+                publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.OPEN.ordinal());
+                doorTransition(DoorStep.OPENING, Math.min(closedForMs, DOOR_MOTION_MS), this::doorOpened);
+            }
+            case SETTLING -> {
+                cancelTransition();
+                dwell.reopened();
+                startDoorCycle();
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adaptive dwell: CLOSE during the hold starts closing the doors now instead of waiting out the hold.
+     * @return true if the press was handled here
+     */
+    private boolean cutDoorHoldShort() {
+        if (!dwell.isAdaptive() || doorStep != DoorStep.HOLDING) {
+            return false;
+        }
+        cancelTransition();
+        dwell.closePressed(clock.currentTimeMillis());
+        startDoorClose();
+        return true;
+    }
+
+    /**
+     * Opens the elevator doors if system conditions allow it. Every door move is a timed transition.
      */
     protected void openDoor() {
+        if (reopenDoor()) {
+            return;
+        }
         if (doorStatus == DoorStatus.OPEN) {
-            System.out.println("Door is already open.");
+            Log.info("Door is already open.");
             return;
         }
 
         if (doorStatus == DoorStatus.CLOSED &&
                 elevatorStatus == ElevatorStatus.STOPPED &&
-                runMode == ElevatorRunMode.ON) {
-            System.out.println("Door is opening...");
-            goToSleep(1500);
-            doorStatus = DoorStatus.OPEN;
-            System.out.println("Door is open. Please Exit Now.");
-            goToSleep(1500);
-            closeDoor();
+                runMode == ElevatorRunMode.ON &&
+                !isTransitionPending()) {
+            startDoorCycle();
         } else if (doorStatus == DoorStatus.LOCKED &&
                 elevatorStatus == ElevatorStatus.STOPPED &&
                 runMode == ElevatorRunMode.ESTOP) {
-            System.out.println("EMERGENCY: Door is opening...");
-            goToSleep(1500);
-            doorStatus = DoorStatus.OPEN;
-            System.out.println("EMERGENCY: Door is open. Please evacuate.");
-            goToSleep(1500);
-            closeDoor();
+            evacuationDoorCycle(() -> { });
         } else if (runMode == ElevatorRunMode.OVERLOAD) {
-            System.out.println("OVERLOAD: Door is opening...");
-            goToSleep(1500);
-            doorStatus = DoorStatus.OPEN;
-            System.out.println("OVERLOAD: Door is open. Please remove excess weight.");
-            goToSleep(1500);
+            Log.info("OVERLOAD: Door is opening...");
+            publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.OPEN.ordinal());
+            emergencyTransition(DOOR_MOTION_MS, () -> {
+                setDoorStatus(DoorStatus.OPEN);
+                Log.info("OVERLOAD: Door is open. Please remove excess weight.");
+            });
         } else {
-            System.out.println("Door cannot be opened at this time.");
+            Log.info("Door cannot be opened at this time.");
         }
     }
 
@@ -121,365 +557,411 @@ public abstract class AbstractElevator {
      */
     protected void closeDoor() {
         if (doorStatus == DoorStatus.CLOSED) {
-            System.out.println("Door is already closed.");
+            Log.info("Door is already closed.");
             return;
         }
 
         if (doorStatus == DoorStatus.OPEN &&
                 elevatorStatus == ElevatorStatus.STOPPED &&
                 (runMode == ElevatorRunMode.ON)) {
-            System.out.println("Door is closing...");
-            goToSleep(1500);
-            doorStatus = DoorStatus.CLOSED;
-            System.out.println("Door is closed.");
-            goToSleep(1500);
-            System.out.println("==================================");
+            if (cutDoorHoldShort()) {
+                return;
+            }
+            if (isTransitionPending()) {
+                Log.info("Door is closing automatically.");
+                return;
+            }
+            startDoorClose();                   // Doors left open by a cut-short cycle close like any other
         }
         else if(doorStatus == DoorStatus.OPEN && elevatorStatus == ElevatorStatus.STOPPED && runMode != ElevatorRunMode.ON){
-            System.out.println("EMERGENCY: Door is closing...");
-            goToSleep(1500);
-            doorStatus = DoorStatus.CLOSED;
-            System.out.println("EMERGENCY: Door is closed!");
-            goToSleep(1500);
-            System.out.println("==================================");
+            emergencyDoorClose(() -> { });
         }
         else {
-            System.out.println("Door cannot be closed at this time.");
+            Log.info("Door cannot be closed at this time.");
         }
     }
 
     /**
-     * Triggers ESTOP logic and activates emergency run mode.
+     * Emergency evacuation: doors open, stay open for riders to get out, then close - then runs the next step.
      */
-    public void emergencyStopPressed(){
-        runMode = ElevatorRunMode.ESTOP;
-        elevatorStatus = ElevatorStatus.STOPPED;
-        doorStatus = DoorStatus.LOCKED;
-        System.out.println("**EMERGENCY STOP BUTTON PRESSED**");
-        printStatus();                                      // Show elevator status
-        boolean runEstopMenu = true;
-        Scanner scanner = new Scanner(System.in);
-
-        while (runEstopMenu) {
-            displayEmergencyStopMenu();                     // Show emergency menu
-            System.out.print("Enter your choice: ");        // Ask User for choice.
-            //String input = scanner.nextLine();              // Get User input value
-            String input = getEmergencyInput();              // Get User input value
-
-            if(input == null){
-                goToSleep(250);
-                continue;
-            }
-            // method to process the choice.
-            switch (input.toUpperCase()) {
-                case "1","FIRE"-> {
-                    // Call method to init Fire Emergency Mode
-                    runEstopMenu = false;
-                    fireEmergencyMode();
-                    exitEmergencyMode();
-                    break;
-                }
-                case "2","EARTHQUAKE"->{
-                    // Call method to init Earthquake Emergency Mode
-                    runEstopMenu = false;
-                    earthquakeMode();
-                    exitEmergencyMode();
-                    break;
-                }
-                case "3","OVERLOAD"->{
-                    // Call method to init Weight Overload Emergency Mode
-                    runEstopMenu = false;
-                    weightOverloadMode();
-                    exitEmergencyMode();
-                    break;
-                }
-                case "4", "HURRICANE"->{
-                    // Call method to init Hurricane Emergency Mode
-                    runEstopMenu = false;
-                    hurricaneMode();
-                    exitEmergencyMode();
-                    break;
-                }
-                case "5", "QUIT", "RESCUE"->{
-                    // Method to init Fire Rescue Mode
-                    runEstopMenu = false;
-                    exitEmergencyMode();
-                    goToSleep(2500);
-                    clearConsole();
-                    break;
+    private void evacuationDoorCycle(Runnable then) {
+        Log.info("EMERGENCY: Door is opening...");
+        publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.OPEN.ordinal());
+        emergencyTransition(DOOR_MOTION_MS, () -> {
+            setDoorStatus(DoorStatus.OPEN);
+            Log.info("EMERGENCY: Door is open. Please evacuate.");
+            emergencyTransition(DOOR_HOLD_MS, () -> emergencyDoorClose(then));
+        });
+    }
+
+    /**
+     * Closes the doors under an emergency mode, then runs the next step. Doors that aren't open go straight to it.
+     */
+    private void emergencyDoorClose(Runnable then) {
+        if (doorStatus != DoorStatus.OPEN) {
+            then.run();
+            return;
+        }
+        Log.info("EMERGENCY: Door is closing...");
+        publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.CLOSED.ordinal());
+        emergencyTransition(DOOR_MOTION_MS, () -> {
+            setDoorStatus(DoorStatus.CLOSED);
+            Log.info("EMERGENCY: Door is closed!");
+            emergencyTransition(DOOR_SETTLE_MS, () -> {
+                Log.info("==================================");
+                then.run();
+            });
+        });
+    }
+
+    /**
+     * Routes one user input (keypad or terminal) to the elevator.
+     * While an emergency mode is active the input answers that mode's prompt instead.
+     */
+    public void handleInput(String input) {
+        try {
+            routeInput(input);
+        } finally {
+            publishSnapshot();
+        }
+    }
+
+    private void routeInput(String input) {
+        if (isInEmergency()) {
+            handleEmergencyInput(input);
+            return;
+        }
+
+        switch (input) {
+            case "B" -> pressFloor(minFloor);
+            case "L" -> pressFloor(lobbyFloor);
+            case "R" -> pressFloor(maxFloor);
+            case "OPEN" -> openDoor();
+            case "CLOSE" -> closeDoor();
+            case "BELL" -> ringBell();
+            case "STOP" -> emergencyStopPressed();
+            default -> {
+                // "U5" / "D5" = Up / Down hall call from floor 5
+                if (input.length() > 1 && (input.charAt(0) == 'U' || input.charAt(0) == 'D')) {
+                    try {
+                        int floor = Integer.parseInt(input.substring(1));
+                        pressHallCall(floor, input.charAt(0) == 'U' ? HallCallDirection.UP : HallCallDirection.DOWN);
+                        return;
+                    } catch (NumberFormatException e) {
+                        // Not a hall call - fall through to the invalid input message
+                    }
                 }
-                default -> {
-                    System.out.println("Invalid emergency input!");
-                    runEstopMenu = false;
-                    break;
+                try {
+                    int floor = Integer.parseInt(input);
+                    pressFloor(floor);
+                } catch (NumberFormatException e) {
+                    Log.info("Invalid input: " + input);
                 }
             }
         }
     }
 
-    private String getEmergencyInput(){
-        if(inputProvider == null){
-            return null;
-        }
-        return inputProvider.getNextInput();
+    /**
+     * @return true while any emergency run mode is waiting to be resolved
+     */
+    public boolean isInEmergency() {
+        return runMode != ElevatorRunMode.ON;
     }
 
     /**
-     * Simulates ringing the bell—used for idle looping or delay in console.
+     * Emergency modes hold the car where it is, except for the earthquake/hurricane recall trip.
+     * @return true if goToNextFloor may move the car this tick
      */
-    public void ringBell() {
-        System.out.println("***Ring!***");
-        goToSleep(1000);
+    protected boolean isMotionAllowed() {
+        return runMode == ElevatorRunMode.ON
+                || runMode == ElevatorRunMode.EARTHQUAKE
+                || runMode == ElevatorRunMode.HURRICANE;
     }
 
     /**
-     * Displays emergency stop menu choices (delegated in subclass).
+     * Triggers ESTOP logic and activates emergency run mode.
+     * Does not block - the menu choice arrives later through handleInput().
      */
-    public void displayEmergencyStopMenu() {
-        System.out.println("!!!!!!!!!! EMERGENCY MENU !!!!!!!!!!");
-        System.out.println("[1] - Fire");
-        System.out.println("[2] - Earthquake");
-        System.out.println("[3] - Overload");
-        System.out.println("[4] - Hurricane");
-        System.out.println("[5] - Fire Rescue Mode (Exit)");
-        System.out.println("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
+    public void emergencyStopPressed(){
+        setRunMode(ElevatorRunMode.ESTOP);
+        setElevatorStatus(ElevatorStatus.STOPPED);
+        setDoorStatus(DoorStatus.LOCKED);
+        Log.info("**EMERGENCY STOP BUTTON PRESSED**");
+        printStatus();                                      // Show elevator status
+        displayEmergencyStopMenu();                         // Show emergency menu
+        Log.info("Enter your choice: ");            // Ask User for choice.
     }
 
     /**
-     * Triggers fire emergency mode, locking the door after opening.
+     * Advances the emergency state machine by one user input.
+     * ESTOP waits for a menu choice; the other modes wait for a yes/no answer to end the mode.
+     * Keypad A (OPEN) counts as yes and keypad B (CLOSE) counts as no.
+     * Input that arrives while the doors are part-way through an emergency sequence is refused.
      */
-    public void fireEmergencyMode(){
-        System.out.println("***Fire Emergency Mode***");
-        openDoor(); // open doors
-        runMode = ElevatorRunMode.FIRE_SAFETY;      // Turn Run Mode to Fire Safety
-        doorStatus = DoorStatus.LOCKED;             // Lock the Door until Fire Rescue Arrives
-        System.out.println("Doors are Locked!");
+    public void handleEmergencyInput(String input) {
+        if (input == null) {
+            return;
+        }
+        if (doorStep == DoorStep.EMERGENCY) {
+            Log.info("Emergency sequence in progress - please wait.");
+            return;
+        }
 
+        switch (runMode) {
+            case ESTOP -> handleEmergencyMenuChoice(input);
+            case FIRE_SAFETY -> answerEndModePrompt(input, "Waiting for Fire Safety mode to be ended...");
+            case EARTHQUAKE -> answerEndModePrompt(input, "Waiting for Earthquake mode to be ended...");
+            case HURRICANE -> answerEndModePrompt(input, "Waiting for Hurricane mode to be ended...");
+            case OVERLOAD -> answerOverloadPrompt(input);
+            default -> Log.info("No emergency in progress.");
+        }
+    }
 
-        Scanner scanner = new Scanner(System.in);
-        while(runMode == ElevatorRunMode.FIRE_SAFETY){
-            printStatus();
-            System.out.println("End Fire Safety Mode? [Y] or [N]?");
-            String input = scanner.nextLine();
+    private void handleEmergencyMenuChoice(String input) {
+        // method to process the choice.
+        switch (input.toUpperCase()) {
+            case "1", "FIRE" -> fireEmergencyMode();            // Init Fire Emergency Mode
+            case "2", "EARTHQUAKE" -> earthquakeMode();         // Init Earthquake Emergency Mode
+            case "3", "OVERLOAD" -> weightOverloadMode();       // Init Weight Overload Emergency Mode
+            case "4", "HURRICANE" -> hurricaneMode();           // Init Hurricane Emergency Mode
+            case "5", "QUIT", "RESCUE" ->                       // Init Fire Rescue Mode
+                    exitEmergencyMode(() -> transition(RESCUE_PAUSE_MS, AbstractElevator::clearConsole));
+            default -> {
+                Log.info("Invalid emergency input!");
+                displayEmergencyStopMenu();
+                Log.info("Enter your choice: ");
+            }
+        }
+    }
 
-            if (input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("y")) {
-                runMode = ElevatorRunMode.ON;
-                closeDoor();
+    /**
+     * Handles the yes/no answer for Fire, Earthquake and Hurricane modes.
+     */
+    private void answerEndModePrompt(String input, String waitingMessage) {
+        String answer = toYesNo(input);
+        if (answer.equals("Y")) {
+            cancelRecall();
+            levelCar(() -> {
+                Log.info("Doors are Unlocked!");
+                emergencyTransition(DOOR_MOTION_MS, () -> {
+                    Log.info("Resuming Normal Operations...");
+                    emergencyTransition(DOOR_SETTLE_MS, this::exitEmergencyMode);
+                });
+            });
+        } else if (answer.equals("N")) {
+            Log.info(waitingMessage);
+        } else {
+            Log.info("Invalid input! Select [Y] or [N]!");
+        }
+    }
 
-                System.out.println("Doors are Unlocked!");
-                goToSleep(1500);
-                System.out.println("Resuming Normal Operations...");
-                goToSleep(1500);
+    /**
+     * Handles the "Is Excess Weight Removed?" answer for Overload mode.
+     */
+    private void answerOverloadPrompt(String input) {
+        String answer = toYesNo(input);
+        // Reset run mode if excess weight was removed
+        if (answer.equals("Y")) {
+            emergencyDoorClose(() -> setRunMode(ElevatorRunMode.ON));      // Mode changes only once the doors are shut
+        }
+        // Otherwise stay in overload mode
+        else if (answer.equals("N")) {
+            Log.info("Please remove excess weight before proceeding!");
+            Log.info("Is Excess Weight Removed? [Y] or [N]");
+        }
+        // Handle invalid input
+        else {
+            Log.info("Invalid input! Select [Y] or [N]!");
+        }
+    }
 
-            }
-            else if (input.equalsIgnoreCase("no") || input.equalsIgnoreCase("n")) {
-                System.out.println("Waiting for Fire Safety mode to be ended...");
-            }
-            else {
-                System.out.println("Invalid input! Select [Y] or [N]!");
-            }
+    /**
+     * Normalizes terminal and keypad answers to "Y", "N", or "" when neither.
+     */
+    private static String toYesNo(String input) {
+        // reassign the keypad presses to play nice
+        if (input.equalsIgnoreCase("OPEN") || input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("y")) {
+            return "Y";     //Keypad A Press
         }
+        if (input.equalsIgnoreCase("CLOSE") || input.equalsIgnoreCase("no") || input.equalsIgnoreCase("n")) {
+            return "N";     //Keypad B Press
+        }
+        return "";
+    }
+
+    /**
+     * Rings the alarm bell. Nothing waits for the chime - the car carries on with whatever it was doing.
+     */
+    public void ringBell() {
+        Log.info("***Ring!***");
+    }
+
+    /**
+     * Displays emergency stop menu choices (delegated in subclass).
+     */
+    public void displayEmergencyStopMenu() {
+        Log.info("!!!!!!!!!! EMERGENCY MENU !!!!!!!!!!");
+        Log.info("[1] - Fire");
+        Log.info("[2] - Earthquake");
+        Log.info("[3] - Overload");
+        Log.info("[4] - Hurricane");
+        Log.info("[5] - Fire Rescue Mode (Exit)");
+        Log.info("!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
+    }
+
+    /**
+     * Triggers fire emergency mode, locking the door after the evacuation cycle.
+     */
+    public void fireEmergencyMode(){
+        Log.info("***Fire Emergency Mode***");
+        setRunMode(ElevatorRunMode.FIRE_SAFETY);    // Turn Run Mode to Fire Safety
+        evacuationDoorCycle(() -> {                 // Open doors, let riders out, close
+            setDoorStatus(DoorStatus.LOCKED);       // Lock the Door until Fire Rescue Arrives
+            Log.info("Doors are Locked!");
+        });
+        Log.info("End Fire Safety Mode? [Y] or [N]?");
     }
 
     /**
      * Actions taken when EARTHQUAKE Run Mode is activated
      * - Door opens and emergency warning plays
      * - Doors close
-     * - Elevator is sent to the basement
-     * - User is asked in a loop if they wish to end Earthquake mode
+     * - Elevator is sent to the basement (one floor per tick through goToNextFloor)
+     * - User is asked through handleInput if they wish to end Earthquake mode
+     * The door steps are timed transitions; the recall starts once the doors are locked.
      */
     public void earthquakeMode() {
-        System.out.println("***Earthquake Mode***");
-        openDoor();                             // Open doors
-        runMode = ElevatorRunMode.EARTHQUAKE;   // Set Earthquake Run Mode
-        doorStatus = DoorStatus.LOCKED;         // Lock the Door until Fire Rescue Arrives
-        sendElevatorToBasement();               // Send elevator to basement
-
-        Scanner scanner = new Scanner(System.in);
-        while(runMode == ElevatorRunMode.EARTHQUAKE){
-            printStatus();
-            System.out.println("End Earthquake Mode? [Y] or [N]?");
-            String input = scanner.nextLine();
-
-            if (input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("y")) {
-                runMode = ElevatorRunMode.ON;
-                closeDoor();
-
-                System.out.println("Doors are Unlocked!");
-                goToSleep(1500);
-                System.out.println("Resuming Normal Operations...");
-                goToSleep(1500);
-
-            }
-            else if (input.equalsIgnoreCase("no") || input.equalsIgnoreCase("n")) {
-                System.out.println("Waiting for Earthquake mode to be ended...");
-            }
-            else {
-                System.out.println("Invalid input! Select [Y] or [N]!");
-            }
-        }
+        Log.info("***Earthquake Mode***");
+        setRunMode(ElevatorRunMode.EARTHQUAKE); // Set Earthquake Run Mode
+        evacuationDoorCycle(() -> {             // Open doors, let riders out, close
+            setDoorStatus(DoorStatus.LOCKED);   // Lock the Door until Fire Rescue Arrives
+            sendElevatorToBasement();           // Send elevator to basement
+        });
+        Log.info("End Earthquake Mode? [Y] or [N]?");
     }
 
     /**
      * Sends elevator to basement under emergency logic.
+     * Only queues the recall - the main loop moves the car there a floor at a time.
      */
     public void sendElevatorToBasement() {
-        System.out.println("*** Sending Elevator to Basement ***");
-        elevatorStatus = ElevatorStatus.MOVING_DOWN;
+        Log.info("*** Sending Elevator to Basement ***");
+        recallTo(minFloor);
+    }
+
+    /**
+     * Clears every pending request and makes the given floor the only destination.
+     */
+    private void recallTo(int floor) {
         requestQueue.clear();
-        requestQueue.add(MIN_FLOOR_NUMBER);
+        hallCallsUp.clear();
+        hallCallsDown.clear();
+        if (floor == currentFloor) {
+            primaryDestination = -1;
+            setElevatorStatus(ElevatorStatus.STOPPED);
+            return;
+        }
+        requestQueue.add(floor, clock.currentTimeMillis());
+        recallFloor = floor;
+        primaryDestination = floor;
+        setElevatorStatus(floor > currentFloor ? ElevatorStatus.MOVING_UP : ElevatorStatus.MOVING_DOWN);
+    }
 
-        while (currentFloor > MIN_FLOOR_NUMBER) {
-            goToNextFloor();
-            printStatus();
-            goToSleep(1500);
+    /**
+     * Drops the request queued by recallTo, so a car whose mode has ended doesn't carry on to the basement or roof.
+     */
+    private void cancelRecall() {
+        if (recallFloor != FloorRequestSet.NONE) {
+            requestQueue.remove(recallFloor);
+            recallFloor = FloorRequestSet.NONE;
+            primaryDestination = -1;
         }
     }
 
+    /**
+     * Brings the car to rest at a floor, abandoning any travel or door step in flight, then runs the next step.
+     * This version stops the car where it is; PassengerElevator levels a moving car at the next floor it can stop at.
+     */
+    protected void levelCar(Runnable then) {
+        cancelTransition();
+        setElevatorStatus(ElevatorStatus.STOPPED);
+        then.run();
+    }
+
     /**
      * Weight Overload Safety Protocol - in lieu of sensors, users trigger via E-stop menu
      *  - Run mode changed to OVERLOAD
      *  - Doors Open and stay open
-     *  - User is asked in a loop if excess weight has been removed
+     *  - User is asked through handleInput if excess weight has been removed
      */
     public void weightOverloadMode(){
-        System.out.println("***Weight Overload Mode***");
-        System.out.println("*Elevator weight overloaded!*");
-        runMode = ElevatorRunMode.OVERLOAD;                                         // Run mode set to OVERLOAD
+        Log.info("***Weight Overload Mode***");
+        Log.info("*Elevator weight overloaded!*");
+        setRunMode(ElevatorRunMode.OVERLOAD);                                       // Run mode set to OVERLOAD
         openDoor();                                                                 // doors open and keeps them open due to run mode.
-        Scanner scanner = new Scanner(System.in);                                   // loop to ask user if excess weight was removed
-        while(runMode == ElevatorRunMode.OVERLOAD){
-            printStatus();
-            System.out.print("Is Excess Weight Removed? [Y] or [N]");               // Ask User for choice.
-            //String input = scanner.nextLine();
-            String input = null;
-            while(input == null) {
-                input = inputProvider.getNextInput();
-                System.out.println("EMERGENCY KEYPAD INPUT ====== > " + input);
-                goToSleep(1000); // delay prevents busy loop
-            }
-            
-            // reassign the keypad presses to play nice
-            if(input.equalsIgnoreCase("OPEN")) input = "Y";     //Keypad A Press
-            if(input.equalsIgnoreCase("CLOSE")) input = "N";    //Keypad B Press
-            
-            // Reset run mode if excess weight was removed
-            if (input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("y")) {
-                closeDoor();
-                runMode = ElevatorRunMode.ON;
-            }
-            // Otherwise stay in loop
-            else if (input.equalsIgnoreCase("no") || input.equalsIgnoreCase("n")) {
-                System.out.println("Please remove excess weight before proceeding!");
-            }
-            // Handle invalid input
-            else {
-                System.out.println("Invalid input! Select [Y] or [N]!");
-            }
-        }
+        Log.info("Is Excess Weight Removed? [Y] or [N]");                   // Ask User for choice.
     }
 
     /**
-     * Upon exiting Emergency Mode the run mode will change back to ON and the door will be unlocked by switching it back to closed.
+     * Upon exiting Emergency Mode the door is unlocked (opened, then closed) and the run mode changes back to ON.
+     * Each step is a timed transition; the mode only returns to ON once the doors are shut.
      */
     public void exitEmergencyMode(){
-        System.out.println("***Exiting Emergency Mode***");
-        System.out.println("Returning to Normal Operations...");
-        runMode = ElevatorRunMode.ON;
-        goToSleep(1500);
-        System.out.println("Door is unlocking...");
-        doorStatus = DoorStatus.OPEN;
-        goToSleep(1500);
-        System.out.println("Door is unlocked!");
-        closeDoor();
+        exitEmergencyMode(() -> { });
+    }
+
+    private void exitEmergencyMode(Runnable afterwards) {
+        Log.info("***Exiting Emergency Mode***");
+        Log.info("Returning to Normal Operations...");
+        cancelRecall();
+        levelCar(() -> {                        // Doors only open once the car is at rest at a floor
+            Log.info("Door is unlocking...");
+            publishEvent(ElevatorEventType.DOOR_MOVING, currentFloor, DoorStatus.OPEN.ordinal());
+            emergencyTransition(DOOR_MOTION_MS, () -> {
+                setDoorStatus(DoorStatus.OPEN);
+                Log.info("Door is unlocked!");
+                emergencyTransition(DOOR_HOLD_MS, () -> emergencyDoorClose(() -> {
+                    setRunMode(ElevatorRunMode.ON);
+                    afterwards.run();
+                }));
+            });
+        });
     }
 
     /**
-     * Reassigns a new primaryDestination based on queue and movement direction.
+     * Reassigns a new primaryDestination once the old one is done, as the dispatch strategy decides.
      */
     protected void reassignPrimaryDestination() {
-        if (primaryDestination != -1 || requestQueue.isEmpty()) {
+        if (primaryDestination != -1 || !hasPendingRequests()) {
             return;
         }
-
-        int target = currentFloor;
-
-        if (elevatorStatus == ElevatorStatus.MOVING_UP) {
-            for (int floor : requestQueue) {
-                if (floor > target) {
-                    target = floor;
-                }
-            }
-        } else if (elevatorStatus == ElevatorStatus.MOVING_DOWN) {
-            for (int floor : requestQueue) {
-                if (floor < target) {
-                    target = floor;
-                }
-            }
-        } else {
-            for (int floor : requestQueue) {
-                if (Math.abs(floor - currentFloor) > Math.abs(target - currentFloor)) {
-                    target = floor;
-                }
-            }
-        }
-
-        primaryDestination = target;
+        primaryDestination = dispatch.nextPrimaryDestination(this);
     }
 
-
     /**
      * Actions taken when HURRICANE Run Mode is activated
      * - Door opens and emergency warning plays
      * - Doors close
-     * - Elevator is sent to the roof
-     * - User is asked in a loop if they wish to end Hurrican mode
+     * - Elevator is sent to the roof (one floor per tick through goToNextFloor)
+     * - User is asked through handleInput if they wish to end Hurricane mode
+     * The door steps are timed transitions; the recall starts once the doors are locked.
      */
     public void hurricaneMode() {
-        System.out.println("***Hurricane Mode***");
-        openDoor();                             // Open doors
-        runMode = ElevatorRunMode.HURRICANE;    // Set HURRICANE Run Mode
-        doorStatus = DoorStatus.LOCKED;         // Lock the Door until Fire Rescue Arrives
-        sendElevatorToRoof();                   // Send elevator to Roof
-
-        Scanner scanner = new Scanner(System.in);
-        while(runMode == ElevatorRunMode.HURRICANE){
-            printStatus();
-            System.out.println("End HURRICANE Mode? [Y] or [N]?");
-            String input = scanner.nextLine();
-
-            if (input.equalsIgnoreCase("yes") || input.equalsIgnoreCase("y")) {
-                runMode = ElevatorRunMode.ON;
-                closeDoor();
-
-                System.out.println("Doors are Unlocked!");
-                goToSleep(1500);
-                System.out.println("Resuming Normal Operations...");
-                goToSleep(1500);
-
-            }
-            else if (input.equalsIgnoreCase("no") || input.equalsIgnoreCase("n")) {
-                System.out.println("Waiting for Earthquake mode to be ended...");
-            }
-            else {
-                System.out.println("Invalid input! Select [Y] or [N]!");
-            }
-        }
+        Log.info("***Hurricane Mode***");
+        setRunMode(ElevatorRunMode.HURRICANE);  // Set HURRICANE Run Mode
+        evacuationDoorCycle(() -> {             // Open doors, let riders out, close
+            setDoorStatus(DoorStatus.LOCKED);   // Lock the Door until Fire Rescue Arrives
+            sendElevatorToRoof();               // Send elevator to Roof
+        });
+        Log.info("End HURRICANE Mode? [Y] or [N]?");
     }
 
     /**
-     * Sends elevator to basement under emergency logic.
+     * Sends elevator to roof under emergency logic.
+     * Only queues the recall - the main loop moves the car there a floor at a time.
      */
     public void sendElevatorToRoof() {
-        System.out.println("*** Sending Elevator to Roof ***");
-        elevatorStatus = ElevatorStatus.MOVING_UP;
-        requestQueue.clear();
-        requestQueue.add(MAX_FLOOR_NUMBER);
-
-        while (currentFloor < MAX_FLOOR_NUMBER) {
-            goToNextFloor();
-            printStatus();
-            goToSleep(1500);
-        }
+        Log.info("*** Sending Elevator to Roof ***");
+        recallTo(maxFloor);
     }
 }
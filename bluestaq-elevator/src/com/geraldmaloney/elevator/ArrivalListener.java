@@ -0,0 +1,14 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * Callback for anything that needs to know when a car stops at a requested floor
+ * (group dispatch, simulations, passenger tracking).
+ */
+@FunctionalInterface
+public interface ArrivalListener {
+    /**
+     * @param elevator the car that arrived
+     * @param floor the floor it stopped at
+     */
+    void onArrival(AbstractElevator elevator, int floor);
+}
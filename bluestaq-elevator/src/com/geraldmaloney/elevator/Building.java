@@ -0,0 +1,412 @@
+package com.geraldmaloney.elevator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Building topology: floor range, labels, floors the cars don't serve, express zones and travel times.
+ * Loaded from a properties file at startup (-Delevator.building=path), so taller or mixed-use buildings
+ * run and simulate without recompiling. Without a file it is the original 13-floor demo building.
+ *
+ * Travel times are turned into a cumulative table when the building is built, so the time between any
+ * two floors is one subtraction - cheap enough for dispatch to call for every car on every hall call.
+ *
+ * File format (every key optional):
+ *   name=Harbor Point
+ *   floors.min=0, floors.lobby=1, floors.max=40
+ *   label.0=Garage                  Labels default to Basement / Lobby* / Roof / the floor number
+ *   skip=13, 26                     Floors the cars pass without stopping (no landing doors, mechanical)
+ *   travel.ms=1500                  Default time to move one floor
+ *   travel.ms.5=2200                Time to move between floor 5 and 6 (e.g. a tall atrium floor)
+ *   express.1=2-20@600              Floors strictly between 2 and 20 are not served and take 600 ms each
+ *
+ * Motion profile (optional; set motion.speed to turn it on):
+ *   motion.speed=2.5                Cruising speed in m/s
+ *   motion.accel=1.0                Acceleration limit in m/s^2
+ *   motion.jerk=1.5                 Jerk limit in m/s^3
+ *   floor.height=3.5                Default floor-to-floor height in metres
+ *   floor.height.1=5.0              Height from floor 1 to 2
+ * With a profile the car runs nonstop between stops, accelerating, cruising and braking, and decides
+ * whether to stop at a floor only when it reaches that floor's decision point. Trip times then come from
+ * the heights and the profile, and the travel.ms keys and express @ms times are not used.
+ */
+public class Building {
+
+    public static final String PROPERTY = "elevator.building";
+
+    private final String name;
+    private final int minFloor;
+    private final int lobbyFloor;
+    private final int maxFloor;
+    private final String[] labels;                  // Indexed by floor - minFloor
+    private final boolean[] served;
+    private final long[] cumulativeMs;              // Travel time from minFloor up to each floor
+    private final List<ExpressZone> expressZones;
+    private final MotionProfile motion;             // Null: the car steps floor by floor at the segment times
+    private final long[] tripMs;                    // Rest-to-rest time for every pair of floors, [from][to] flattened
+    private final long[] decisionMs;                // When each of those trips parts from longer ones
+
+    /**
+     * Express run through floors with no landing doors: the car serves only the two ends.
+     */
+    public static final class ExpressZone {
+        private final int bottom;
+        private final int top;
+        private final long floorTravelMs;
+
+        ExpressZone(int bottom, int top, long floorTravelMs) {
+            this.bottom = bottom;
+            this.top = top;
+            this.floorTravelMs = floorTravelMs;
+        }
+
+        public int getBottom() {
+            return bottom;
+        }
+
+        public int getTop() {
+            return top;
+        }
+
+        public long getFloorTravelMs() {
+            return floorTravelMs;
+        }
+
+        @Override
+        public String toString() {
+            return bottom + "-" + top + "@" + floorTravelMs;
+        }
+    }
+
+    private Building(String name, int minFloor, int lobbyFloor, int maxFloor, String[] labels, boolean[] served,
+                     long[] segmentMs, List<ExpressZone> expressZones, MotionProfile motion, double[] heights) {
+        this.name = name;
+        this.minFloor = minFloor;
+        this.lobbyFloor = lobbyFloor;
+        this.maxFloor = maxFloor;
+        this.labels = labels;
+        this.served = served;
+        this.expressZones = Collections.unmodifiableList(expressZones);
+        this.cumulativeMs = new long[labels.length];
+        for (int i = 1; i < cumulativeMs.length; i++) {
+            cumulativeMs[i] = cumulativeMs[i - 1] + segmentMs[i - 1];
+        }
+
+        // Kinematic trips are not additive (each one accelerates and brakes), so tabulate every pair once
+        this.motion = motion;
+        if (motion == null) {
+            this.tripMs = null;
+            this.decisionMs = null;
+        } else {
+            int floorCount = labels.length;
+            double[] position = new double[floorCount];
+            for (int i = 1; i < floorCount; i++) {
+                position[i] = position[i - 1] + heights[i - 1];
+            }
+            this.tripMs = new long[floorCount * floorCount];
+            this.decisionMs = new long[floorCount * floorCount];
+            for (int from = 0; from < floorCount; from++) {
+                for (int to = 0; to < floorCount; to++) {
+                    double distance = Math.abs(position[to] - position[from]);
+                    tripMs[from * floorCount + to] = Math.round(motion.tripTime(distance) * 1000);
+                    decisionMs[from * floorCount + to] = Math.round(motion.decisionTime(distance) * 1000);
+                }
+            }
+        }
+    }
+
+    /**
+     * The demo building: Basement (0), Lobby (1) up to the Roof (12), every floor served.
+     */
+    public static Building standard() {
+        return standard(AbstractElevator.MIN_FLOOR_NUMBER, AbstractElevator.LOBBY_FLOOR_NUMBER, AbstractElevator.MAX_FLOOR_NUMBER);
+    }
+
+    /**
+     * A plain building over the given range: default labels and travel time, every floor served.
+     */
+    public static Building standard(int minFloor, int lobbyFloor, int maxFloor) {
+        Properties properties = new Properties();
+        properties.setProperty("floors.min", String.valueOf(minFloor));
+        properties.setProperty("floors.lobby", String.valueOf(lobbyFloor));
+        properties.setProperty("floors.max", String.valueOf(maxFloor));
+        return fromProperties(properties);
+    }
+
+    /**
+     * Loads the file named by -Delevator.building, or the demo building if the property isn't set.
+     * A file that is missing or invalid stops startup rather than running the wrong building.
+     */
+    public static Building fromSystemProperty() {
+        String file = System.getProperty(PROPERTY);
+        if (file == null) {
+            return standard();
+        }
+        try {
+            return load(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read building file " + file, e);
+        }
+    }
+
+    public static Building load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file)) {
+            properties.load(in);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Builds and validates a building from already-parsed properties.
+     * @throws IllegalArgumentException if the floor range, a floor number or a time doesn't make sense
+     */
+    public static Building fromProperties(Properties properties) {
+        int minFloor = intValue(properties, "floors.min", AbstractElevator.MIN_FLOOR_NUMBER);
+        int lobbyFloor = intValue(properties, "floors.lobby", AbstractElevator.LOBBY_FLOOR_NUMBER);
+        int maxFloor = intValue(properties, "floors.max", AbstractElevator.MAX_FLOOR_NUMBER);
+        if (minFloor < 0 || maxFloor < minFloor) {
+            throw new IllegalArgumentException("Invalid floor range " + minFloor + ".." + maxFloor);
+        }
+        if (lobbyFloor < minFloor || lobbyFloor > maxFloor) {
+            throw new IllegalArgumentException("Lobby floor " + lobbyFloor + " is outside " + minFloor + ".." + maxFloor);
+        }
+        int floorCount = maxFloor - minFloor + 1;
+
+        String[] labels = new String[floorCount];
+        boolean[] served = new boolean[floorCount];
+        for (int floor = minFloor; floor <= maxFloor; floor++) {
+            String label = properties.getProperty("label." + floor);
+            if (label == null) {
+                if (floor == minFloor) {
+                    label = "Basement";
+                } else if (floor == lobbyFloor) {
+                    label = "Lobby*";
+                } else if (floor == maxFloor) {
+                    label = "Roof";
+                } else {
+                    label = String.valueOf(floor);
+                }
+            }
+            labels[floor - minFloor] = label.trim();
+            served[floor - minFloor] = true;
+        }
+
+        long defaultTravelMs = longValue(properties, "travel.ms", PassengerElevator.FLOOR_TRAVEL_MS);
+        long[] segmentMs = new long[Math.max(0, floorCount - 1)];
+        for (int floor = minFloor; floor < maxFloor; floor++) {
+            segmentMs[floor - minFloor] = longValue(properties, "travel.ms." + floor, defaultTravelMs);
+        }
+
+        String skip = properties.getProperty("skip", "").trim();
+        if (!skip.isEmpty()) {
+            for (String entry : skip.split(",")) {
+                int floor = parseFloor(entry, minFloor, maxFloor, "skip");
+                served[floor - minFloor] = false;
+            }
+        }
+
+        List<ExpressZone> zones = new ArrayList<>();
+        for (int index = 1; properties.getProperty("express." + index) != null; index++) {
+            ExpressZone zone = parseExpressZone(properties.getProperty("express." + index), minFloor, maxFloor, defaultTravelMs);
+            for (int floor = zone.bottom + 1; floor < zone.top; floor++) {
+                served[floor - minFloor] = false;
+            }
+            for (int floor = zone.bottom; floor < zone.top; floor++) {
+                if (properties.getProperty("travel.ms." + floor) == null) {
+                    segmentMs[floor - minFloor] = zone.floorTravelMs;
+                }
+            }
+            zones.add(zone);
+        }
+
+        if (!served[lobbyFloor - minFloor]) {
+            throw new IllegalArgumentException("The lobby (floor " + lobbyFloor + ") must be served");
+        }
+
+        MotionProfile motion = null;
+        double[] heights = null;
+        if (properties.getProperty("motion.speed") != null) {
+            motion = new MotionProfile(doubleValue(properties, "motion.jerk", MotionProfile.DEFAULT_JERK),
+                    doubleValue(properties, "motion.accel", MotionProfile.DEFAULT_ACCEL),
+                    doubleValue(properties, "motion.speed", MotionProfile.DEFAULT_SPEED));
+            double defaultHeight = doubleValue(properties, "floor.height", MotionProfile.DEFAULT_FLOOR_HEIGHT);
+            heights = new double[Math.max(0, floorCount - 1)];
+            for (int floor = minFloor; floor < maxFloor; floor++) {
+                heights[floor - minFloor] = doubleValue(properties, "floor.height." + floor, defaultHeight);
+            }
+        }
+
+        String name = properties.getProperty("name", "Building " + minFloor + "-" + maxFloor).trim();
+        return new Building(name, minFloor, lobbyFloor, maxFloor, labels, served, segmentMs, zones, motion, heights);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinFloor() {
+        return minFloor;
+    }
+
+    public int getLobbyFloor() {
+        return lobbyFloor;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    public List<ExpressZone> getExpressZones() {
+        return expressZones;
+    }
+
+    /**
+     * @return the car's motion profile, or null if the car steps floor by floor at fixed segment times
+     */
+    public MotionProfile getMotion() {
+        return motion;
+    }
+
+    public boolean hasMotionProfile() {
+        return motion != null;
+    }
+
+    /**
+     * @return the label shown for a floor; floors outside the building fall back to their number
+     */
+    public String label(int floor) {
+        return contains(floor) ? labels[floor - minFloor] : String.valueOf(floor);
+    }
+
+    /**
+     * @return true if cars can stop at the floor (it's in range, not skipped and not inside an express zone)
+     */
+    public boolean isServed(int floor) {
+        return contains(floor) && served[floor - minFloor];
+    }
+
+    public boolean contains(int floor) {
+        return floor >= minFloor && floor <= maxFloor;
+    }
+
+    /**
+     * @return time to travel between two floors in the building, in milliseconds (order doesn't matter).
+     * With a motion profile this is a nonstop trip from rest to rest.
+     */
+    public long travelMs(int from, int to) {
+        if (motion != null) {
+            return tripMs[(from - minFloor) * labels.length + (to - minFloor)];
+        }
+        return Math.abs(cumulativeMs[to - minFloor] - cumulativeMs[from - minFloor]);
+    }
+
+    /**
+     * @return how long after leaving a floor from rest the car must commit to stopping at another; later than
+     * that, a nonstop trip there and one carrying on past it no longer move the same way.
+     * Without a motion profile this is the travel time, as the car decides when it reaches each floor.
+     */
+    public long decisionMs(int from, int to) {
+        if (motion == null) {
+            return travelMs(from, to);
+        }
+        return decisionMs[(from - minFloor) * labels.length + (to - minFloor)];
+    }
+
+    @Override
+    public String toString() {
+        int servedCount = 0;
+        for (boolean floorServed : served) {
+            if (floorServed) {
+                servedCount++;
+            }
+        }
+        return name + ": floors " + label(minFloor) + ".." + label(maxFloor) + ", " + servedCount + " served"
+                + (expressZones.isEmpty() ? "" : ", express " + expressZones)
+                + (motion == null ? "" : ", motion " + motion);
+    }
+
+    private static ExpressZone parseExpressZone(String value, int minFloor, int maxFloor, long defaultTravelMs) {
+        String range = value.trim();
+        long travelMs = defaultTravelMs;
+        int at = range.indexOf('@');
+        if (at >= 0) {
+            travelMs = parseMs(range.substring(at + 1), "express");
+            range = range.substring(0, at);
+        }
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            throw new IllegalArgumentException("Express zone must look like bottom-top[@ms]: " + value);
+        }
+        int bottom = parseFloor(range.substring(0, dash), minFloor, maxFloor, "express");
+        int top = parseFloor(range.substring(dash + 1), minFloor, maxFloor, "express");
+        if (top <= bottom) {
+            throw new IllegalArgumentException("Express zone top must be above its bottom: " + value);
+        }
+        return new ExpressZone(bottom, top, travelMs);
+    }
+
+    private static int parseFloor(String text, int minFloor, int maxFloor, String key) {
+        try {
+            int floor = Integer.parseInt(text.trim());
+            if (floor < minFloor || floor > maxFloor) {
+                throw new IllegalArgumentException(key + ": floor " + floor + " is outside " + minFloor + ".." + maxFloor);
+            }
+            return floor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a floor number: " + text.trim());
+        }
+    }
+
+    private static long parseMs(String text, String key) {
+        try {
+            long ms = Long.parseLong(text.trim());
+            if (ms <= 0) {
+                throw new IllegalArgumentException(key + ": travel time must be positive: " + ms);
+            }
+            return ms;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a time in ms: " + text.trim());
+        }
+    }
+
+    private static int intValue(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a number: " + value.trim());
+        }
+    }
+
+    private static double doubleValue(Properties properties, String key, double fallback) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (!(number > 0) || Double.isInfinite(number)) {
+                throw new IllegalArgumentException(key + ": must be positive: " + value.trim());
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a number: " + value.trim());
+        }
+    }
+
+    private static long longValue(Properties properties, String key, long fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : parseMs(value, key);
+    }
+}
@@ -0,0 +1,185 @@
+package com.geraldmaloney.elevator;
+
+import java.util.Arrays;
+
+/**
+ * Decides how long the car spends at each stop, and learns from what happens there.
+ *
+ * FIXED keeps the original timings. ADAPTIVE opens the doors while the car finishes levelling, holds them
+ * for a time learned per floor, and settles briefly after they close. Each finished stop feeds the floor's
+ * learned hold (an exponentially weighted average):
+ *   - CLOSE pressed during the hold: the riders needed exactly as long as they had
+ *   - otherwise: a short base hold plus a little per rider activity (calls served, destinations pressed)
+ *   - reopened or held with OPEN: the hold was too short, so add a rider's worth
+ * A busy lobby ends up with a long hold, a quiet upper floor with a short one.
+ */
+public class DoorDwell {
+
+    // Adaptive timing
+    public static final long LEVEL_MS = 1000;               // Final levelling, doors start opening as the car lands
+    public static final long MIN_HOLD_MS = 800;             // Shortest hold - time to see nobody is coming
+    public static final long MAX_HOLD_MS = 5000;            // Longest learned hold (OPEN can still extend it)
+    public static final long PER_RIDER_MS = 600;            // Extra hold per rider getting on or off
+    public static final long CLOSED_SETTLE_MS = 500;        // Door lock check before moving off
+    private static final double LEARNING_RATE = 0.25;       // Weight of the latest stop in the learned hold
+
+    private final DwellMode mode;
+    private final int minFloor;
+    private final double[] learnedHoldMs;                   // Indexed by floor - minFloor
+
+    // Stop in progress
+    private int stopFloor = FloorRequestSet.NONE;
+    private long stopStartMs;
+    private long doorsOpenedMs = -1;
+    private int riderActivity;
+    private long cutShortHoldMs = -1;                       // Hold time when CLOSE was pressed, -1 if not pressed
+    private boolean reopened;
+
+    // Totals for reports
+    private long stopCount;
+    private long totalStopMs;
+    private long closePressCount;
+    private long reopenCount;
+
+    public DoorDwell(DwellMode mode, Building building) {
+        this.mode = mode;
+        this.minFloor = building.getMinFloor();
+        this.learnedHoldMs = new double[building.getMaxFloor() - minFloor + 1];
+        Arrays.fill(learnedHoldMs, AbstractElevator.DOOR_HOLD_MS);   // Untrained floors start at the fixed hold
+    }
+
+    public DwellMode getMode() {
+        return mode;
+    }
+
+    public boolean isAdaptive() {
+        return mode == DwellMode.ADAPTIVE;
+    }
+
+    /**
+     * @return time from arriving at a floor until the doors start to open
+     */
+    public long arrivalSettleMs() {
+        return isAdaptive() ? LEVEL_MS : PassengerElevator.ARRIVAL_SETTLE_MS;
+    }
+
+    /**
+     * @return how long to hold the doors open at a floor
+     */
+    public long holdMs(int floor) {
+        return isAdaptive() ? Math.round(learnedHoldMs[floor - minFloor]) : AbstractElevator.DOOR_HOLD_MS;
+    }
+
+    /**
+     * @return pause after the doors close before the car may move
+     */
+    public long closedSettleMs() {
+        return isAdaptive() ? CLOSED_SETTLE_MS : AbstractElevator.DOOR_SETTLE_MS;
+    }
+
+    /**
+     * The car has stopped at a floor to answer the given number of calls.
+     */
+    public void stopStarted(int floor, int callsServed, long nowMs) {
+        stopFloor = floor;
+        stopStartMs = nowMs;
+        doorsOpenedMs = -1;
+        riderActivity = callsServed;
+        cutShortHoldMs = -1;
+        reopened = false;
+    }
+
+    /**
+     * Doors are fully open. Opening without an arrival (OPEN pressed at an idle car) starts a stop here.
+     */
+    public void doorsOpened(int floor, long nowMs) {
+        if (stopFloor != floor) {
+            stopStarted(floor, 0, nowMs);
+        }
+        if (doorsOpenedMs == -1) {
+            doorsOpenedMs = nowMs;
+        }
+    }
+
+    /**
+     * Someone pressed a destination or a hall button at this floor while the car was stopped here.
+     */
+    public void riderActivity(int floor) {
+        if (stopFloor == floor) {
+            riderActivity++;
+        }
+    }
+
+    /**
+     * CLOSE pressed while the doors were held open.
+     */
+    public void closePressed(long nowMs) {
+        closePressCount++;
+        if (doorsOpenedMs != -1 && !reopened) {
+            cutShortHoldMs = nowMs - doorsOpenedMs;
+        }
+    }
+
+    /**
+     * Doors reopened, or the hold extended, because someone still wanted in.
+     */
+    public void reopened() {
+        reopenCount++;
+        reopened = true;
+        cutShortHoldMs = -1;
+    }
+
+    /**
+     * Doors are closed and settled - learn from the stop and count it.
+     */
+    public void stopFinished(long nowMs) {
+        if (stopFloor == FloorRequestSet.NONE) {
+            return;
+        }
+        double neededMs = cutShortHoldMs >= 0 ? cutShortHoldMs : MIN_HOLD_MS + PER_RIDER_MS * riderActivity;
+        if (reopened) {
+            neededMs = Math.max(neededMs, learnedHoldMs[stopFloor - minFloor]) + PER_RIDER_MS;
+        }
+        neededMs = Math.max(MIN_HOLD_MS, Math.min(MAX_HOLD_MS, neededMs));
+        learnedHoldMs[stopFloor - minFloor] += LEARNING_RATE * (neededMs - learnedHoldMs[stopFloor - minFloor]);
+
+        stopCount++;
+        totalStopMs += nowMs - stopStartMs;
+        stopFloor = FloorRequestSet.NONE;
+    }
+
+    /**
+     * @return how long a stop is expected to take, arrival to ready to move: the measured average once stops
+     * have finished, before that one door cycle at this mode's timings
+     */
+    public long expectedStopMs() {
+        if (stopCount > 0) {
+            return Math.round(getAverageStopMs());
+        }
+        return arrivalSettleMs() + AbstractElevator.DOOR_MOTION_MS + AbstractElevator.DOOR_HOLD_MS
+                + AbstractElevator.DOOR_MOTION_MS + closedSettleMs();
+    }
+
+    public long getStopCount() {
+        return stopCount;
+    }
+
+    /**
+     * @return total time from arrival until ready to move, over all finished stops
+     */
+    public long getTotalStopMs() {
+        return totalStopMs;
+    }
+
+    public double getAverageStopMs() {
+        return stopCount == 0 ? 0 : (double) totalStopMs / stopCount;
+    }
+
+    public long getClosePressCount() {
+        return closePressCount;
+    }
+
+    public long getReopenCount() {
+        return reopenCount;
+    }
+}
@@ -0,0 +1,32 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * How long the car waits at a stop. Chosen at startup with -Delevator.dwell=FIXED|ADAPTIVE.
+ */
+public enum DwellMode {
+    FIXED,          // Original timings: 2500 ms levelling, 1500 ms hold, 1500 ms settle at every stop
+    ADAPTIVE;       // Hold learned per floor from recent traffic, CLOSE cuts it short, OPEN reopens
+
+    public static final String PROPERTY = "elevator.dwell";
+
+    /**
+     * Parses a mode name (any case), falling back to the default for null or unknown names.
+     */
+    public static DwellMode parse(String name, DwellMode fallback) {
+        if (name != null) {
+            for (DwellMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * @return the mode set by -Delevator.dwell, ADAPTIVE if unset
+     */
+    public static DwellMode fromSystemProperty() {
+        return parse(System.getProperty(PROPERTY), ADAPTIVE);
+    }
+}
@@ -10,9 +10,9 @@ import java.lang.Thread;
 @Deprecated
 public class Elevator {
 
-    public static final int MIN_FLOOR_NUMBER = 0;
-    public static final int LOBBY_FLOOR_NUMBER = 1;
-    public static final int MAX_FLOOR_NUMBER = 12;
+    public static final int MIN_FLOOR_NUMBER = AbstractElevator.MIN_FLOOR_NUMBER;      // One definition - see Building for other layouts
+    public static final int LOBBY_FLOOR_NUMBER = AbstractElevator.LOBBY_FLOOR_NUMBER;
+    public static final int MAX_FLOOR_NUMBER = AbstractElevator.MAX_FLOOR_NUMBER;
 
     private int primaryDestination = -1;                // Holds primary destination
     private int currentFloor;                           // Current Floor Elevator is on
@@ -0,0 +1,77 @@
+package com.geraldmaloney.elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of a car's state, taken on the control thread after each state transition.
+ * Display, metrics and network threads read this instead of the live fields: one volatile read gives
+ * a consistent view (floor, direction, doors and queues all from the same moment) without locking the loop.
+ *
+ * @param timeMs elevator clock time when the snapshot was taken
+ * @param carCalls requested floors, lowest first (unmodifiable)
+ * @param hallCallsUp landings with Up pressed, lowest first (unmodifiable)
+ * @param hallCallsDown landings with Down pressed, lowest first (unmodifiable)
+ */
+public record ElevatorSnapshot(long timeMs,
+                               int currentFloor,
+                               int primaryDestination,
+                               ElevatorStatus elevatorStatus,
+                               DoorStatus doorStatus,
+                               ElevatorRunMode runMode,
+                               List<Integer> carCalls,
+                               List<Integer> hallCallsUp,
+                               List<Integer> hallCallsDown) {
+
+    /**
+     * @return number of pending car calls plus hall calls
+     */
+    public int requestCount() {
+        return carCalls.size() + hallCallsUp.size() + hallCallsDown.size();
+    }
+
+    /**
+     * @return true if the floor has a car call or a hall call in either direction
+     */
+    public boolean hasFloorRequest(int floor) {
+        return carCalls.contains(floor) || hallCallsUp.contains(floor) || hallCallsDown.contains(floor);
+    }
+
+    /**
+     * @return true if this snapshot still describes the given live state (ignoring the time stamp)
+     */
+    boolean matches(int floor, int primary, ElevatorStatus status, DoorStatus door, ElevatorRunMode mode,
+                    FloorRequestSet cars, FloorRequestSet up, FloorRequestSet down) {
+        return floor == currentFloor && primary == primaryDestination
+                && status == elevatorStatus && door == doorStatus && mode == runMode
+                && sameFloors(carCalls, cars) && sameFloors(hallCallsUp, up) && sameFloors(hallCallsDown, down);
+    }
+
+    /**
+     * Copies a live request set into an unmodifiable list, lowest floor first.
+     */
+    static List<Integer> floorsOf(FloorRequestSet set) {
+        if (set.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> floors = new ArrayList<>(set.size());
+        for (int floor = set.lowest(); floor != FloorRequestSet.NONE; floor = set.nextAbove(floor)) {
+            floors.add(floor);
+        }
+        return Collections.unmodifiableList(floors);
+    }
+
+    // Compares without allocating, so an unchanged tick costs nothing
+    private static boolean sameFloors(List<Integer> floors, FloorRequestSet set) {
+        if (floors.size() != set.size()) {
+            return false;
+        }
+        for (int i = 0; i < floors.size(); i++) {
+            if (!set.contains(floors.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
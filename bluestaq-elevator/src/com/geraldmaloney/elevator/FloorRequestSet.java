@@ -0,0 +1,183 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * Allocation-free set of requested floors, stored as one bit per floor in a long[].
+ * Replaces the boxed PriorityQueue: add/remove/contains are O(1), and next-stop-up/down
+ * queries are a mask plus numberOfTrailingZeros/numberOfLeadingZeros per 64 floors
+ * (a single word, so O(1), for any building up to 64 floors).
+ * Each requested floor also remembers when it was added, so schedulers can see how long it has waited.
+ */
+public class FloorRequestSet {
+
+    public static final int NONE = -1;      // Returned when no floor matches - same sentinel as primaryDestination
+
+    private final int minFloor;
+    private final int maxFloor;
+    private final long[] words;             // Bit (floor - minFloor) is set when that floor is requested
+    private final long[] addedAtMs;         // When each requested floor was added (valid while its bit is set)
+    private int size;
+
+    public FloorRequestSet(int minFloor, int maxFloor) {
+        if (minFloor < 0 || maxFloor < minFloor) {
+            throw new IllegalArgumentException("Invalid floor range " + minFloor + ".." + maxFloor);
+        }
+        this.minFloor = minFloor;
+        this.maxFloor = maxFloor;
+        this.words = new long[((maxFloor - minFloor) >> 6) + 1];
+        this.addedAtMs = new long[maxFloor - minFloor + 1];
+    }
+
+    /**
+     * Adds a floor with no request time (it reads as requested at time 0).
+     * @return true if the floor was added, false if it was already requested or is outside the building
+     */
+    public boolean add(int floor) {
+        return add(floor, 0);
+    }
+
+    /**
+     * Adds a floor requested at the given clock time. A floor that is already requested keeps its original time.
+     * @return true if the floor was added, false if it was already requested or is outside the building
+     */
+    public boolean add(int floor, long timeMs) {
+        if (!inRange(floor)) {
+            return false;
+        }
+        int bit = floor - minFloor;
+        long mask = 1L << bit;
+        if ((words[bit >>> 6] & mask) != 0) {
+            return false;
+        }
+        words[bit >>> 6] |= mask;
+        addedAtMs[bit] = timeMs;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true if the floor was requested and has now been removed
+     */
+    public boolean remove(int floor) {
+        if (!inRange(floor)) {
+            return false;
+        }
+        int bit = floor - minFloor;
+        long mask = 1L << bit;
+        if ((words[bit >>> 6] & mask) == 0) {
+            return false;
+        }
+        words[bit >>> 6] &= ~mask;
+        size--;
+        return true;
+    }
+
+    public boolean contains(int floor) {
+        if (!inRange(floor)) {
+            return false;
+        }
+        int bit = floor - minFloor;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * @return clock time the floor was requested, or NONE if it isn't requested
+     */
+    public long requestedAtMs(int floor) {
+        return contains(floor) ? addedAtMs[floor - minFloor] : NONE;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return the closest requested floor strictly above the given floor, or NONE
+     */
+    public int nextAbove(int floor) {
+        if (floor >= maxFloor) {
+            return NONE;
+        }
+        int bit = Math.max(0, floor - minFloor + 1);
+        int w = bit >>> 6;
+        long word = words[w] & (-1L << bit);    // Shift count is taken mod 64, so this keeps bits >= bit within the word
+        while (true) {
+            if (word != 0) {
+                return minFloor + (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return NONE;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * @return the closest requested floor strictly below the given floor, or NONE
+     */
+    public int nextBelow(int floor) {
+        if (floor <= minFloor) {
+            return NONE;
+        }
+        int bit = Math.min(maxFloor, floor - 1) - minFloor;
+        int w = bit >>> 6;
+        long word = words[w] & (-1L >>> (63 - (bit & 63)));  // Keep bits <= bit within the word
+        while (true) {
+            if (word != 0) {
+                return minFloor + (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--w < 0) {
+                return NONE;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * @return the lowest requested floor, or NONE if empty
+     */
+    public int lowest() {
+        return isEmpty() ? NONE : nextAbove(minFloor - 1);
+    }
+
+    /**
+     * @return the highest requested floor, or NONE if empty
+     */
+    public int highest() {
+        return isEmpty() ? NONE : nextBelow(maxFloor + 1);
+    }
+
+    public int getMinFloor() {
+        return minFloor;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    private boolean inRange(int floor) {
+        return floor >= minFloor && floor <= maxFloor;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("[");
+        for (int floor = lowest(); floor != NONE; floor = nextAbove(floor)) {
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(floor);
+        }
+        return out.append(']').toString();
+    }
+}
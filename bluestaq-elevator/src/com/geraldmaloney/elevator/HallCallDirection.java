@@ -0,0 +1,16 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * Direction of a hall call - which button (Up or Down) a rider pressed on the landing.
+ */
+public enum HallCallDirection {
+    UP,
+    DOWN;
+
+    /**
+     * @return the hall button a rider going from one floor to another would press
+     */
+    public static HallCallDirection between(int fromFloor, int toFloor) {
+        return toFloor > fromFloor ? UP : DOWN;
+    }
+}
@@ -1,51 +1,228 @@
 package com.geraldmaloney.elevator;
 
+import com.geraldmaloney.elevator.clock.FixedRateTickEngine;
+import com.geraldmaloney.elevator.clock.PacedClock;
+import com.geraldmaloney.elevator.dispatch.EtaCostPolicy;
+import com.geraldmaloney.elevator.dispatch.GroupController;
+import com.geraldmaloney.elevator.input.CombinedInputProvider;
 import com.geraldmaloney.elevator.input.KeypadInputProvider;
 import com.geraldmaloney.elevator.input.InputProvider;
+import com.geraldmaloney.elevator.input.SocketInputProvider;
+import com.geraldmaloney.elevator.display.AsyncDisplayAdapter;
 import com.geraldmaloney.elevator.display.LcdDisplayAdapter;
+import com.geraldmaloney.elevator.display.LcdTimingMode;
+import com.geraldmaloney.elevator.display.TimedDisplayAdapter;
+import com.geraldmaloney.elevator.event.BinaryEventLog;
+import com.geraldmaloney.elevator.log.AsyncLogSink;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.metrics.ElevatorMetrics;
+import com.geraldmaloney.elevator.metrics.MetricsFileWriter;
+import com.geraldmaloney.elevator.metrics.MetricsHttpServer;
+import com.geraldmaloney.elevator.metrics.MetricsRegistry;
+import com.geraldmaloney.elevator.replay.RecordingInputProvider;
+import com.geraldmaloney.elevator.replay.ReplayLog;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 public class Main {
+
+    private static final long TICK_RATE_MS = 1000;
+
     public static void main(String[] args) {
-        LcdDisplayAdapter display = new LcdDisplayAdapter();
-        InputProvider inputProvider = new KeypadInputProvider();
-        PassengerElevator elevator = new PassengerElevator(inputProvider, display);
+        AsyncLogSink logSink = new AsyncLogSink(Log.getSink(), 4096);      // journald writes happen off the control loop
+        Log.setSink(logSink);
+        MetricsRegistry registry = new MetricsRegistry();
+        ElevatorMetrics metrics = new ElevatorMetrics(registry);
+        LcdDisplayAdapter lcd = new LcdDisplayAdapter(LcdTimingMode.PRECISE);
+        AsyncDisplayAdapter display = new AsyncDisplayAdapter(           // LCD writes run on their own thread
+                new TimedDisplayAdapter(lcd, metrics.displayUpdate));
+        metrics.attachDisplay(display, lcd, registry);
+        InputProvider keypad = new KeypadInputProvider(true);           // Interrupt-driven: never scans or sleeps in the loop
+        SocketInputProvider controlSocket = openControlSocket();            // BMS commands and state feed, if -Delevator.socket is set
+        InputProvider commands = (controlSocket != null) ? new CombinedInputProvider(keypad, controlSocket) : keypad;
+        RecordingInputProvider recorder = openReplayRecording(commands);    // Re-run a field session with ReplayRunner (-Delevator.replay.dir)
+        InputProvider inputProvider = (recorder != null) ? recorder : commands;
+        PacedClock clock = new PacedClock();                               // Virtual time kept to wall-clock pace, so field runs replay exactly
+        Building building = Building.fromSystemProperty();                  // -Delevator.building=path/to/building.properties
+        Log.info("Building: " + building);
+        PassengerElevator elevator = new PassengerElevator(inputProvider, display, clock, building);
+        Log.info("Door dwell: " + elevator.getDoorDwell().getMode());           // -Delevator.dwell=FIXED for the original timings
+        Log.info("Dispatch: " + elevator.getDispatchStrategy().getClass().getSimpleName());   // -Delevator.dispatch=LOOK for the original, unbounded-wait scheduling
+        if (recorder != null) {
+            recorder.setElevator(elevator);
+        }
+        if (controlSocket != null) {
+            controlSocket.attach(elevator);
+        }
+        GroupController group = new GroupController(List.of(elevator), new EtaCostPolicy());   // Destination calls ("2>9") go through the group
+        BinaryEventLog eventLog = openEventLog(elevator);                   // Read back with EventLogReader after an incident (-Delevator.events.file)
+        metrics.attach(elevator, registry);
+        String metricsFile = System.getProperty("elevator.metrics.file");   // Local-only box: dump to a file instead of serving HTTP
+        MetricsHttpServer metricsServer = (metricsFile == null) ? startMetricsServer(registry) : null;
+        MetricsFileWriter metricsWriter = (metricsFile != null) ? startMetricsFile(registry, metricsFile) : null;
 
-        boolean running = true;
-        long tickRateMs = 1000;
+        FixedRateTickEngine engine = new FixedRateTickEngine(clock, TICK_RATE_MS);
+        engine.setTickListener((latenessNanos, workNanos, skippedTicks) -> {
+            metrics.tickLateness.record(latenessNanos);
+            metrics.tick.record(workNanos);
+            if (skippedTicks > 0) {
+                metrics.tickOverruns.increment();
+                metrics.ticksSkipped.add(skippedTicks);
+                if (recorder != null) {
+                    recorder.recordSkippedTicks(skippedTicks);              // Replay loses the same deadlines
+                }
+            }
+        });
 
-        while (running) {
+        // Door, travel and emergency steps run as timed transitions between ticks, so a tick never blocks on them
+        engine.run(() -> {
+            long started = System.nanoTime();
             elevator.goToNextFloor();
+            metrics.goToNextFloor.recordSince(started);
+
+            started = System.nanoTime();
             elevator.printStatus();
+            metrics.printStatus.recordSince(started);
 
+            started = System.nanoTime();
             String input = inputProvider.getNextInput();
+            metrics.inputPoll.recordSince(started);
             if (input != null) {
-                System.out.println("KEYPAD INPUT: " + input);
+                Log.info("KEYPAD INPUT: " + input);
 
                 switch (input) {
-                    case "Q", "QUIT", "EXIT" -> running = false;
-                    case "B" -> elevator.pressFloor(PassengerElevator.MIN_FLOOR_NUMBER);
-                    case "L" -> elevator.pressFloor(PassengerElevator.LOBBY_FLOOR_NUMBER);
-                    case "R" -> elevator.pressFloor(PassengerElevator.MAX_FLOOR_NUMBER);
-                    case "OPEN" -> elevator.openDoor();
-                    case "CLOSE" -> elevator.closeDoor();
-                    case "BELL" -> elevator.ringBell();
-                    case "STOP" -> elevator.emergencyStopPressed();
+                    case "Q", "QUIT", "EXIT" -> engine.stop();
                     default -> {
-                        try {
-                            int floor = Integer.parseInt(input);
-                            elevator.pressFloor(floor);
-                        } catch (NumberFormatException e) {
-                            System.out.println("Invalid input: " + input);
+                        if (!group.handleDestinationInput(input)) {
+                            elevator.handleInput(input);        // Emergency modes answer from the same input stream
                         }
                     }
                 }
             }
+        });
 
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+        if (metricsWriter != null) {
+            metricsWriter.close();
+        }
+        if (controlSocket != null) {
+            try {
+                controlSocket.close();
+            } catch (IOException e) {
+                Log.warn("Could not close control socket: " + e.getMessage());
+            }
+        }
+
+        if (eventLog != null) {
+            try {
+                eventLog.close();
+            } catch (IOException e) {
+                Log.warn("Could not close event log: " + e.getMessage());
+            }
+        }
+        if (recorder != null) {
             try {
-                Thread.sleep(tickRateMs);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                recorder.close();
+            } catch (IOException e) {
+                Log.warn("Could not close replay log: " + e.getMessage());
             }
         }
+        logSink.close();                                                    // Prints whatever is still queued
+    }
+
+    /**
+     * Serves /metrics for Prometheus on the address and port from -Delevator.metrics.address (default
+     * loopback only) and -Delevator.metrics.port (default 9400). Set the address to 0.0.0.0 to let a
+     * scraper on another machine in. Runs without the endpoint if the port can't be bound.
+     */
+    private static MetricsHttpServer startMetricsServer(MetricsRegistry registry) {
+        String host = System.getProperty("elevator.metrics.address", "127.0.0.1");
+        int port = Integer.getInteger("elevator.metrics.port", 9400);
+        try {
+            MetricsHttpServer server = new MetricsHttpServer(registry, new InetSocketAddress(host, port));
+            Log.info("Metrics endpoint: http://" + host + ":" + server.getPort() + "/metrics");
+            return server;
+        } catch (IOException e) {
+            Log.warn("Metrics endpoint disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serves the local control API on the Unix domain socket from -Delevator.socket.
+     * Runs keypad-only if the property is unset or the socket can't be bound.
+     */
+    private static SocketInputProvider openControlSocket() {
+        String path = System.getProperty(SocketInputProvider.PROPERTY);
+        if (path == null) {
+            return null;
+        }
+        try {
+            SocketInputProvider socket = new SocketInputProvider(Path.of(path));
+            Log.info("Control socket: " + path);
+            return socket;
+        } catch (IOException | UnsupportedOperationException e) {
+            Log.warn("Control socket disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Dumps the metrics to the file every -Delevator.metrics.interval.ms (default 15000, Prometheus'
+     * default scrape interval) from a background thread.
+     */
+    private static MetricsFileWriter startMetricsFile(MetricsRegistry registry, String metricsFile) {
+        long intervalMs = Long.getLong("elevator.metrics.interval.ms", 15_000L);
+        return new MetricsFileWriter(registry, Path.of(metricsFile), intervalMs);
+    }
+
+    /**
+     * Starts recording inputs by tick, to a new file per run in -Delevator.replay.dir, keeping the newest
+     * -Delevator.replay.keep recordings (default 20). Off unless the directory is set, so an SD card only
+     * fills with recordings on purpose. Runs without recording if the file can't be opened.
+     */
+    private static RecordingInputProvider openReplayRecording(InputProvider keypad) {
+        String dirName = System.getProperty(ReplayLog.DIR_PROPERTY);
+        if (dirName == null) {
+            return null;
+        }
+        Path dir = Path.of(dirName);
+        int keep = Integer.getInteger(ReplayLog.KEEP_PROPERTY, ReplayLog.DEFAULT_KEEP);
+        try {
+            Path file = ReplayLog.newRecordingFile(dir, keep);
+            Log.info("Replay log: " + file);
+            return new RecordingInputProvider(keypad, Files.newBufferedWriter(file),
+                    ReplayLog.currentSettings());                           // Header: building, dwell and dispatch the run started with
+        } catch (IOException e) {
+            Log.warn("Replay recording disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Opens the binary event log from -Delevator.events.file and attaches it to the elevator, rotating it at
+     * -Delevator.events.max.mb (default 64). Off unless the file is set; runs without a log if it can't be opened.
+     */
+    private static BinaryEventLog openEventLog(PassengerElevator elevator) {
+        String file = System.getProperty(BinaryEventLog.PROPERTY);
+        if (file == null) {
+            return null;
+        }
+        long maxBytes = Long.getLong(BinaryEventLog.MAX_MB_PROPERTY, BinaryEventLog.DEFAULT_MAX_MB) << 20;
+        try {
+            BinaryEventLog eventLog = new BinaryEventLog(Path.of(file), maxBytes);
+            eventLog.attach(elevator, 0);
+            Log.info("Event log: " + file);
+            return eventLog;
+        } catch (IOException | IllegalArgumentException e) {
+            Log.warn("Event log disabled: " + e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,120 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * Jerk-limited (S-curve) motion of a car: acceleration ramps up at the jerk limit, holds at the acceleration
+ * limit, ramps down as the car reaches cruising speed, and the stop mirrors the start.
+ * Short hops never reach full speed (or even full acceleration); long runs cruise at the speed limit.
+ *
+ * All trips here start and end at rest. Distances in metres, times in seconds unless the name says ms.
+ */
+public class MotionProfile {
+
+    // Typical mid-rise traction car
+    public static final double DEFAULT_JERK = 1.5;          // m/s^3 - comfort limit on how fast acceleration changes
+    public static final double DEFAULT_ACCEL = 1.0;         // m/s^2
+    public static final double DEFAULT_SPEED = 2.5;         // m/s
+    public static final double DEFAULT_FLOOR_HEIGHT = 3.5;  // m
+
+    private final double jerk;
+    private final double accel;
+    private final double maxSpeed;
+
+    public MotionProfile(double jerk, double accel, double maxSpeed) {
+        if (jerk <= 0 || accel <= 0 || maxSpeed <= 0) {
+            throw new IllegalArgumentException("Jerk, acceleration and speed must be positive");
+        }
+        this.jerk = jerk;
+        this.accel = accel;
+        this.maxSpeed = maxSpeed;
+    }
+
+    public double getJerk() {
+        return jerk;
+    }
+
+    public double getAccel() {
+        return accel;
+    }
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * @return time to get from rest up to the given speed (or from it down to rest)
+     */
+    public double rampTime(double speed) {
+        if (speed >= accel * accel / jerk) {
+            return speed / accel + accel / jerk;    // Jerk up, hold full acceleration, jerk down
+        }
+        return 2 * Math.sqrt(speed / jerk);         // Never reaches full acceleration
+    }
+
+    /**
+     * @return distance covered getting from rest up to the given speed; the ramp is symmetric, so it is speed x time / 2
+     */
+    public double rampDistance(double speed) {
+        return speed * rampTime(speed) / 2;
+    }
+
+    /**
+     * @return highest speed reached on a trip of the given length
+     */
+    public double peakSpeed(double distance) {
+        if (2 * rampDistance(maxSpeed) <= distance) {
+            return maxSpeed;
+        }
+        double low = 0;
+        double high = maxSpeed;
+        for (int i = 0; i < 60; i++) {              // Ramp distance grows with speed, so bisect
+            double mid = (low + high) / 2;
+            if (2 * rampDistance(mid) <= distance) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return time for a trip of the given length, rest to rest
+     */
+    public double tripTime(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        double peak = peakSpeed(distance);
+        double cruise = distance - 2 * rampDistance(peak);
+        return 2 * rampTime(peak) + Math.max(0, cruise) / peak;
+    }
+
+    /**
+     * @return time spent braking at the end of a trip of the given length
+     */
+    public double brakingTime(double distance) {
+        return distance <= 0 ? 0 : rampTime(peakSpeed(distance));
+    }
+
+    /**
+     * @return how far into a trip of the given length its motion first differs from every longer trip's,
+     * i.e. the last moment the car can still choose between stopping there and carrying on.
+     * A trip that cruises parts from longer ones when it starts braking. A shorter one parts as soon as its
+     * acceleration starts easing off towards its lower peak speed - well before it starts braking.
+     */
+    public double decisionTime(double distance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        double peak = peakSpeed(distance);
+        if (peak >= maxSpeed) {
+            return tripTime(distance) - rampTime(peak);
+        }
+        return rampTime(peak) - Math.min(accel / jerk, Math.sqrt(peak / jerk));    // Minus the jerk-down phase
+    }
+
+    @Override
+    public String toString() {
+        return maxSpeed + " m/s, " + accel + " m/s2, jerk " + jerk + " m/s3";
+    }
+}
@@ -1,21 +1,46 @@
 package com.geraldmaloney.elevator;
 
+import com.geraldmaloney.elevator.clock.ElevatorClock;
 import com.geraldmaloney.elevator.display.DisplayAdapter;
+import com.geraldmaloney.elevator.event.ElevatorEventType;
 import com.geraldmaloney.elevator.input.InputProvider;
-
-import java.util.PriorityQueue;
-import java.util.Comparator;
+import com.geraldmaloney.elevator.log.Log;
 
 public class PassengerElevator extends AbstractElevator {
 
+    // Timed transitions - durations of each step of a trip
+    public static final long FLOOR_TRAVEL_MS = 1500;        // Moving one floor, unless the building says otherwise
+    public static final long ARRIVAL_SETTLE_MS = 2500;      // Levelling at a stop before the doors open
+
     // Adding Display Adapter
     private final DisplayAdapter display;
 
+    // Current run: a nonstop run under a motion profile, otherwise the floor step in progress
+    private int runStartFloor;                  // Floor the car set off from
+    private long runStartMs;                    // When it set off
+    private int brakingFloor;                   // Next floor the car could still stop at
+
     public PassengerElevator(InputProvider inputProvider, DisplayAdapter display) {
         super(inputProvider);
         this.display = display;
     }
 
+    public PassengerElevator(InputProvider inputProvider, DisplayAdapter display, ElevatorClock clock) {
+        super(inputProvider, clock);
+        this.display = display;
+    }
+
+    public PassengerElevator(InputProvider inputProvider, DisplayAdapter display, ElevatorClock clock,
+                             int minFloor, int lobbyFloor, int maxFloor) {
+        super(inputProvider, clock, minFloor, lobbyFloor, maxFloor);
+        this.display = display;
+    }
+
+    public PassengerElevator(InputProvider inputProvider, DisplayAdapter display, ElevatorClock clock, Building building) {
+        super(inputProvider, clock, building);
+        this.display = display;
+    }
+
 
     /**
      * Handles user floor requests.
@@ -23,108 +48,285 @@ public class PassengerElevator extends AbstractElevator {
      */
     @Override
     public void pressFloor(int floor) {
-        if (floor < MIN_FLOOR_NUMBER || floor > MAX_FLOOR_NUMBER) {
-            System.out.println("Invalid Floor Number! Basement is Floor " + MIN_FLOOR_NUMBER +
-                    ", Roof is " + MAX_FLOOR_NUMBER + ".\nPlease Try Again!");
+        if (floor < minFloor || floor > maxFloor) {
+            Log.info("Invalid Floor Number! Basement is Floor " + minFloor +
+                    ", Roof is " + maxFloor + ".\nPlease Try Again!");
+            return;
+        }
+
+        if (!building.isServed(floor)) {
+            Log.info("Floor " + getCurrentFloorString(floor) + " is not served by this car.");
             return;
         }
 
         if (requestQueue.contains(floor) || floor == currentFloor) {
-            System.out.println("Floor already requested or you are already on that floor.");
+            Log.info("Floor already requested or you are already on that floor.");
+            return;
+        }
+
+        updatePrimaryDestination(floor);
+        requestQueue.add(floor, clock.currentTimeMillis());
+        publishEvent(ElevatorEventType.CAR_CALL, floor, 0);
+        if (elevatorStatus == ElevatorStatus.STOPPED) {
+            getDoorDwell().riderActivity(currentFloor);      // A rider boarding here pressed their destination
+        }
+
+        String label = getCurrentFloorString(floor);
+        Log.info("Floor " + label + " pressed and added to floor request queue!");
+    }
+
+    /**
+     * Handles Up / Down presses on a landing.
+     * The car picks the rider up on a sweep in the requested direction, or at the end of its run.
+     */
+    @Override
+    public void pressHallCall(int floor, HallCallDirection direction) {
+        if (floor < minFloor || floor > maxFloor) {
+            Log.info("Invalid Floor Number! Basement is Floor " + minFloor +
+                    ", Roof is " + maxFloor + ".\nPlease Try Again!");
+            return;
+        }
+
+        if (!building.isServed(floor)) {
+            Log.info("Floor " + getCurrentFloorString(floor) + " is not served by this car.");
             return;
         }
 
-        boolean noActiveMission = (primaryDestination == -1 || requestQueue.isEmpty());
+        if ((direction == HallCallDirection.UP && floor == maxFloor) ||
+                (direction == HallCallDirection.DOWN && floor == minFloor)) {
+            Log.info("There is no " + direction + " button on floor " + getCurrentFloorString(floor) + ".");
+            return;
+        }
+
+        if (hasHallCall(floor, direction)) {
+            Log.info("Hall call already registered.");
+            return;
+        }
 
-        if (noActiveMission) {
-            primaryDestination = floor;
-        } else if (elevatorStatus == ElevatorStatus.MOVING_UP) {
-            if (floor > currentFloor && floor > primaryDestination) {
-                primaryDestination = floor;
+        // Car is parked right here - just let the rider on
+        if (floor == currentFloor && elevatorStatus == ElevatorStatus.STOPPED) {
+            Log.info("Elevator is already at floor " + getCurrentFloorString(floor) + ".");
+            getDoorDwell().riderActivity(floor);
+            if (!isTransitionPending()) {
+                openDoor();
+                return;
             }
-        } else if (elevatorStatus == ElevatorStatus.MOVING_DOWN) {
-            if (floor < currentFloor && floor < primaryDestination) {
-                primaryDestination = floor;
+            if (dispatch.mayExtendDoorHold(this)) {
+                reopenDoor();                       // Adaptive dwell keeps closing doors open; fixed lets the cycle run
+                return;
             }
+            Log.info("Calls waiting elsewhere - hall call kept for the next visit.");
         }
 
-        PriorityQueue<Integer> rebuiltQueue = new PriorityQueue<>(getFloorComparator());
-        rebuiltQueue.addAll(requestQueue);
-        rebuiltQueue.add(floor);
-        requestQueue = rebuiltQueue;
+        updatePrimaryDestination(floor);
+        (direction == HallCallDirection.UP ? hallCallsUp : hallCallsDown).add(floor, clock.currentTimeMillis());
+        publishEvent(ElevatorEventType.HALL_CALL, floor, direction.ordinal());
 
-        String label = getCurrentFloorString(floor);
-        System.out.println("Floor " + label + " pressed and added to floor request queue!");
+        Log.info("Hall call " + direction + " at floor " + getCurrentFloorString(floor) + " registered!");
+    }
+
+    /**
+     * Extends (or starts) the current mission when a new request comes in.
+     */
+    private void updatePrimaryDestination(int floor) {
+        primaryDestination = dispatch.primaryDestinationFor(this, floor);
     }
 
     /**
      * Handles elevator motion logic.
-     * Moves toward next floor, manages arrivals, and state transitions.
+     * Starts the next move when the car is idle. Travel, arrival and the door cycle then run as timed
+     * transitions on the elevator clock, so this returns immediately instead of blocking the control loop.
      */
     @Override
     public void goToNextFloor() {
-        if (requestQueue.isEmpty()) {
-            elevatorStatus = ElevatorStatus.STOPPED;
+        if (!isMotionAllowed()) {
+            return;                     // Held in place until the emergency is resolved
+        }
+        if (isTransitionPending()) {
+            return;                     // Still travelling or cycling the doors
+        }
+        if (doorStatus == DoorStatus.OPEN) {
+            startDoorClose();           // Never leave a floor with the doors open
+            return;
+        }
+        startNextMove();
+        publishSnapshot();
+    }
+
+    /**
+     * Picks the next floor and sets off toward it, or stops if there is nothing left to do.
+     */
+    private void startNextMove() {
+        if (!hasPendingRequests()) {
+            setElevatorStatus(ElevatorStatus.STOPPED);
             primaryDestination = -1;
-            System.out.println("No floor requests in queue");
+            console.line("No floor requests in queue").flush();     // Printed every idle tick
             return;
         }
+        if (primaryDestination == currentFloor && !hasFloorRequest(currentFloor)) {
+            primaryDestination = -1;            // Swept to the end of the shaft with nobody there (SCAN) - turn around
+            reassignPrimaryDestination();
+        }
 
-        Integer nextFloor = findNextFloorOnTheWay();
-        if (nextFloor == null) {
-            elevatorStatus = ElevatorStatus.STOPPED;
-            System.out.println("No valid next floor to move to.");
+        int nextFloor = findNextFloorOnTheWay();
+        if (nextFloor == FloorRequestSet.NONE) {
+            setElevatorStatus(ElevatorStatus.STOPPED);
+            Log.info("No valid next floor to move to.");
             return;
         }
         if (nextFloor == currentFloor) {
-            elevatorStatus = ElevatorStatus.STOPPED;
+            beginStop(ElevatorStatus.STOPPED);
+            return;
+        }
 
-            if (requestQueue.contains(currentFloor)) {
-                requestQueue.remove(currentFloor);
-            }
+        if (nextFloor > currentFloor) {
+            setElevatorStatus(ElevatorStatus.MOVING_UP);
+            Log.info("Moving up toward floor " + getCurrentFloorString(nextFloor));
+        } else {
+            setElevatorStatus(ElevatorStatus.MOVING_DOWN);
+            Log.info("Moving down toward floor " + getCurrentFloorString(nextFloor));
+        }
+        Log.info("==================================");
+        runStartFloor = currentFloor;
+        runStartMs = clock.currentTimeMillis();
+        if (building.hasMotionProfile()) {
+            startRun();
+            return;
+        }
+        brakingFloor = nextServedFloor(currentFloor);
+        int nextStep = (elevatorStatus == ElevatorStatus.MOVING_UP) ? currentFloor + 1 : currentFloor - 1;
+        transition(building.travelMs(currentFloor, nextStep), this::finishFloorTravel);
+    }
 
-            System.out.println("Arrived at floor " + getCurrentFloorString(currentFloor) + " (" + elevatorStatus.getLabel() + ")");
-            goToSleep(2500);
-            openDoor();
+    /**
+     * Brings a moving car to rest at the next floor it can still stop at - the one it would be braking for -
+     * instead of leaving it between floors, then runs the next step. A stopped car runs it straight away.
+     */
+    @Override
+    protected void levelCar(Runnable then) {
+        if (elevatorStatus == ElevatorStatus.STOPPED || brakingFloor == FloorRequestSet.NONE) {
+            super.levelCar(then);
+            return;
+        }
+        int floor = brakingFloor;
+        long arrivalMs = runStartMs + building.travelMs(runStartFloor, floor);
+        cancelTransition();
+        Log.info("Levelling at floor " + getCurrentFloorString(floor) + "...");
+        emergencyTransition(Math.max(0, arrivalMs - clock.currentTimeMillis()), () -> {
+            setCurrentFloor(floor);
+            setElevatorStatus(ElevatorStatus.STOPPED);
+            then.run();
+        });
+    }
 
-            if (currentFloor == primaryDestination || requestQueue.isEmpty()) {
-                primaryDestination = -1;
-                reassignPrimaryDestination();
-            }
+    /**
+     * Motion profile: one nonstop run from rest. The car only looks at a floor at the last moment it can still
+     * choose to stop there, then either commits to stopping there or lets it go and looks at the next one.
+     */
+    private void startRun() {
+        scheduleBrakingPoint(nextServedFloor(currentFloor));
+    }
 
-            return;
+    /**
+     * Times the next stop decision: the moment the trip to that floor stops moving the same way as a trip
+     * further on. A short hop parts from longer ones once its acceleration eases off, before it brakes.
+     */
+    private void scheduleBrakingPoint(int floor) {
+        brakingFloor = floor;
+        long decisionMs = runStartMs + building.decisionMs(runStartFloor, floor);
+        transition(Math.max(0, decisionMs - clock.currentTimeMillis()), this::reachBrakingPoint);
+    }
+
+    private void reachBrakingPoint() {
+        int floor = brakingFloor;
+        int step = (elevatorStatus == ElevatorStatus.MOVING_UP) ? 1 : -1;
+        if (floor - step != currentFloor) {
+            setCurrentFloor(floor - step);      // Last floor the car can no longer stop at
         }
 
-        if (nextFloor > currentFloor) {
-            elevatorStatus = ElevatorStatus.MOVING_UP;
-            System.out.println("Moving up toward floor " + getCurrentFloorString(nextFloor));
-        } else if (nextFloor < currentFloor) {
-            elevatorStatus = ElevatorStatus.MOVING_DOWN;
-            System.out.println("Moving down toward floor " + getCurrentFloorString(nextFloor));
+        int next = nextServedFloor(floor);
+        boolean requestsBeyond = step > 0 ? hasRequestsAbove(floor) : hasRequestsBelow(floor);
+        if (shouldStopAt(floor, elevatorStatus) || !requestsBeyond || next == FloorRequestSet.NONE) {
+            boolean serveFloor = shouldStopAt(floor, elevatorStatus);
+            long arrivalMs = runStartMs + building.travelMs(runStartFloor, floor);
+            transition(Math.max(0, arrivalMs - clock.currentTimeMillis()), () -> {
+                setCurrentFloor(floor);
+                if (serveFloor) {
+                    beginStop(elevatorStatus);
+                } else {
+                    startNextMove();            // End of the run with nobody here - turn around without opening the doors
+                }
+            });
+        } else {
+            scheduleBrakingPoint(next);
+        }
+    }
+
+    /**
+     * @return the next floor past the given one, in the direction of travel, that the car can stop at
+     */
+    private int nextServedFloor(int floor) {
+        int step = (elevatorStatus == ElevatorStatus.MOVING_UP) ? 1 : -1;
+        for (int f = floor + step; f >= minFloor && f <= maxFloor; f += step) {
+            if (building.isServed(f)) {
+                return f;
+            }
         }
-        System.out.println("==================================");
-        goToSleep(1500);
+        return FloorRequestSet.NONE;
+    }
 
+    /**
+     * Travel to the next floor is done - stop there if it was requested, otherwise keep going.
+     */
+    private void finishFloorTravel() {
         if (elevatorStatus == ElevatorStatus.MOVING_UP) {
-            currentFloor++;
+            setCurrentFloor(currentFloor + 1);
         } else if (elevatorStatus == ElevatorStatus.MOVING_DOWN) {
-            currentFloor--;
+            setCurrentFloor(currentFloor - 1);
         }
 
-        if (requestQueue.contains(currentFloor)) {
-            elevatorStatus = ElevatorStatus.STOPPED;
-            requestQueue.remove(currentFloor);
+        if (shouldStopAt(currentFloor, elevatorStatus)) {
+            beginStop(elevatorStatus);
+        } else if (isMotionAllowed()) {
+            startNextMove();
+        }
+    }
+
+    /**
+     * Stops at the current floor: serves its requests, picks the next mission,
+     * then opens the doors once the car has settled.
+     */
+    private void beginStop(ElevatorStatus arrivingDirection) {
+        getDoorDwell().stopStarted(currentFloor, callsAt(currentFloor), clock.currentTimeMillis());
+        serveStop(currentFloor, arrivingDirection);
+        setElevatorStatus(ElevatorStatus.STOPPED);
 
-            System.out.println("Arrived at floor " + getCurrentFloorString(currentFloor) + " (" + elevatorStatus.getLabel() + ")");
-            goToSleep(2500);
-            openDoor();
+        Log.info("Arrived at floor " + getCurrentFloorString(currentFloor) + " (" + elevatorStatus.getLabel() + ")");
+        notifyArrival(currentFloor);
 
-            if (currentFloor == primaryDestination || requestQueue.isEmpty()) {
-                primaryDestination = -1;
-            }
+        if (currentFloor == primaryDestination || !hasPendingRequests()) {
+            primaryDestination = -1;
+        }
+        reassignPrimaryDestination();
 
-            reassignPrimaryDestination();
+        transition(getDoorDwell().arrivalSettleMs(), this::openDoor);
+    }
+
+    /**
+     * @return how many calls (car, hall up, hall down) are waiting at a floor
+     */
+    private int callsAt(int floor) {
+        int calls = 0;
+        if (requestQueue.contains(floor)) {
+            calls++;
+        }
+        if (hallCallsUp.contains(floor)) {
+            calls++;
+        }
+        if (hallCallsDown.contains(floor)) {
+            calls++;
         }
+        return calls;
     }
 
     /**
@@ -133,91 +335,62 @@ public class PassengerElevator extends AbstractElevator {
      */
     @Override
     public void printStatus() {
-        System.out.println("======== Elevator Status =========");
+        // Every piece comes from the label tables and goes out through the reusable console buffer - no per-tick garbage
+        console.line("======== Elevator Status =========");
 
-        String floorLabel = getCurrentFloorString(currentFloor);
-        Integer liveNextFloor = findNextFloorOnTheWay();
+        int liveNextFloor = findNextFloorOnTheWay();
 
-        String destinationLabel = (liveNextFloor == null || requestQueue.isEmpty() || liveNextFloor == currentFloor)
+        String destinationLabel = (liveNextFloor == FloorRequestSet.NONE || !hasPendingRequests() || liveNextFloor == currentFloor)
                 ? "*Idle*"
-                : getCurrentFloorString(liveNextFloor);
+                : labels.floor(liveNextFloor);
 
         String finalDestinationLabel = (primaryDestination != -1)
-                ? getCurrentFloorString(primaryDestination)
-                : (requestQueue.isEmpty() ? "None" : getCurrentFloorString(findNextFloorOnTheWay()));
+                ? labels.floor(primaryDestination)
+                : (!hasPendingRequests() || liveNextFloor == FloorRequestSet.NONE ? "None" : labels.floor(liveNextFloor));
 
-        System.out.println("Floor: " + floorLabel);
-        System.out.println("Moving: " + elevatorStatus.getLabel() + " | Next Stop: " + destinationLabel);
-        System.out.println("Final Destination: " + finalDestinationLabel);
-        System.out.println("Doors: " + doorStatus);
+        console.line(labels.floorLine(currentFloor));
+        console.append("Moving: ").append(elevatorStatus.getLabel()).append(" | Next Stop: ").line(destinationLabel);
+        console.append("Final Destination: ").line(finalDestinationLabel);
+        console.append("Doors: ").line(doorStatus.name());
 
         if (runMode != ElevatorRunMode.ON) {
-            System.out.println("Mode: " + runMode);
+            console.append("Mode: ").line(runMode.name());
         }
 
-        System.out.println("==================================");
+        console.line("==================================");
+        console.flush();
         if (display != null) {
-            display.updateDisplay(
-                    "Floor: " + floorLabel,
-                    "Dir: " + elevatorStatus.getLabel() + " | Door: " + doorStatus
-            );
+            display.updateDisplay(labels.floorLine(currentFloor), labels.lcdStatusLine(elevatorStatus, doorStatus));
         }
-        System.out.println("==================================");
+        console.line("==================================").flush();
     }
 
     /**
-     * Determines the next floor on the way to the current primary destination.
-     * Prioritizes closest matching direction.
+     * Determines the next floor to head for, as the dispatch strategy decides.
+     * @return next floor to head for, or FloorRequestSet.NONE if there is nowhere to go
      */
-    private Integer findNextFloorOnTheWay() {
-        Integer bestFloor = null;
-
-        // Determine active direction if currently stopped
-        ElevatorStatus effectiveDirection = elevatorStatus;
-        if (elevatorStatus == ElevatorStatus.STOPPED && primaryDestination != -1) {
-            if (primaryDestination > currentFloor) {
-                effectiveDirection = ElevatorStatus.MOVING_UP;
-            } else if (primaryDestination < currentFloor) {
-                effectiveDirection = ElevatorStatus.MOVING_DOWN;
-            }
-        }
-
-        for (int floor : requestQueue) {
-            if (effectiveDirection == ElevatorStatus.MOVING_UP && floor > currentFloor) {
-                if (bestFloor == null || floor < bestFloor) {
-                    bestFloor = floor;
-                }
-            } else if (effectiveDirection == ElevatorStatus.MOVING_DOWN && floor < currentFloor) {
-                if (bestFloor == null || floor > bestFloor) {
-                    bestFloor = floor;
-                }
-            }
-        }
-
-        // If no valid floor in current direction, return primary destination
-        if (bestFloor == null && primaryDestination != -1 && primaryDestination != currentFloor) {
-            bestFloor = primaryDestination;
-        }
-
-        return bestFloor;
+    protected int findNextFloorOnTheWay() {
+        return dispatch.nextFloor(this);
     }
 
+    /**
+     * Decides whether the car stops at a floor it just reached.
+     */
+    private boolean shouldStopAt(int floor, ElevatorStatus direction) {
+        return dispatch.shouldStopAt(this, floor, direction);
+    }
 
     /**
-     * Creates comparator to order the floor request queue.
-     * Sorting is direction-aware or fallback to proximity.
+     * Clears the requests answered by stopping at a floor: every car call, and the hall calls the strategy
+     * says this stop answers (LOOK leaves an opposite-direction call unless the car turns around here).
      */
-    private Comparator<Integer> getFloorComparator() {
-        return (a, b) -> {
-            if (elevatorStatus == ElevatorStatus.MOVING_UP) {
-                return Integer.compare(a, b);
-            } else if (elevatorStatus == ElevatorStatus.MOVING_DOWN) {
-                return Integer.compare(b, a);
-            } else {
-                int distA = Math.abs(a - currentFloor);
-                int distB = Math.abs(b - currentFloor);
-                return Integer.compare(distA, distB);
-            }
-        };
+    private void serveStop(int floor, ElevatorStatus direction) {
+        requestQueue.remove(floor);
+        if (dispatch.answersHallCall(this, floor, direction, HallCallDirection.UP)) {
+            hallCallsUp.remove(floor);
+        }
+        if (dispatch.answersHallCall(this, floor, direction, HallCallDirection.DOWN)) {
+            hallCallsDown.remove(floor);
+        }
     }
 }
@@ -0,0 +1,58 @@
+package com.geraldmaloney.elevator;
+
+/**
+ * Every label the status screen can show, rendered once per building instead of once per tick.
+ * printStatus and the LCD pick finished strings out of these tables, so an unchanged tick builds no strings.
+ */
+public class StatusLabels {
+
+    private final int minFloor;
+    private final String[] floorLabels;         // "Basement", "Lobby*", "Roof" or the floor number
+    private final String[] floorLines;          // "Floor: <label>" - console and LCD line 1
+    private final String[][] lcdStatusLines;    // [direction][door] -> "Dir: <label> | Door: <door>" - LCD line 2
+
+    // Constructor - renders the tables for one building's floors
+    public StatusLabels(Building building) {
+        this.minFloor = building.getMinFloor();
+        int floorCount = building.getMaxFloor() - minFloor + 1;
+        this.floorLabels = new String[floorCount];
+        this.floorLines = new String[floorCount];
+        for (int floor = minFloor; floor <= building.getMaxFloor(); floor++) {
+            String label = building.label(floor);
+            floorLabels[floor - minFloor] = label;
+            floorLines[floor - minFloor] = "Floor: " + label;
+        }
+
+        ElevatorStatus[] statuses = ElevatorStatus.values();
+        DoorStatus[] doors = DoorStatus.values();
+        this.lcdStatusLines = new String[statuses.length][doors.length];
+        for (ElevatorStatus status : statuses) {
+            for (DoorStatus door : doors) {
+                lcdStatusLines[status.ordinal()][door.ordinal()] = "Dir: " + status.getLabel() + " | Door: " + door;
+            }
+        }
+    }
+
+    /**
+     * @return the label for a floor; floors outside the building fall back to their number
+     */
+    public String floor(int floor) {
+        int index = floor - minFloor;
+        return (index >= 0 && index < floorLabels.length) ? floorLabels[index] : String.valueOf(floor);
+    }
+
+    /**
+     * @return "Floor: " plus the floor's label
+     */
+    public String floorLine(int floor) {
+        int index = floor - minFloor;
+        return (index >= 0 && index < floorLines.length) ? floorLines[index] : "Floor: " + floor;
+    }
+
+    /**
+     * @return the LCD's second line for the given direction and door state
+     */
+    public String lcdStatusLine(ElevatorStatus status, DoorStatus door) {
+        return lcdStatusLines[status.ordinal()][door.ordinal()];
+    }
+}
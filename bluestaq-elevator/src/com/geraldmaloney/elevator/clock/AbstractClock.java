@@ -0,0 +1,66 @@
+package com.geraldmaloney.elevator.clock;
+
+import java.util.PriorityQueue;
+
+/**
+ * Shared event queue for clock implementations.
+ * Subclasses only decide what "now" is and how waiting is done.
+ */
+public abstract class AbstractClock implements ElevatorClock {
+
+    private final PriorityQueue<ScheduledAction> actions = new PriorityQueue<>();
+    private long nextSequence = 0;
+
+    @Override
+    public synchronized ScheduledAction schedule(long delayMs, Runnable action) {
+        ScheduledAction scheduled = new ScheduledAction(currentTimeMillis() + Math.max(0, delayMs), nextSequence++, action);
+        actions.add(scheduled);
+        return scheduled;
+    }
+
+    @Override
+    public void runDueActions() {
+        runActionsDueBy(currentTimeMillis());
+    }
+
+    /**
+     * @return number of actions still waiting to run (cancelled ones included until they come due)
+     */
+    public synchronized int getPendingActionCount() {
+        return actions.size();
+    }
+
+    /**
+     * Runs queued actions due at or before the given time, in time order.
+     * Actions scheduled by a running action are picked up in the same pass if they are also due.
+     */
+    protected void runActionsDueBy(long timeMs) {
+        ScheduledAction next;
+        while ((next = pollDue(timeMs)) != null) {
+            beforeRun(next);
+            next.run();
+        }
+    }
+
+    /**
+     * @return due time of the earliest queued action, or -1 if the queue is empty
+     */
+    protected synchronized long peekNextDueTime() {
+        ScheduledAction head = actions.peek();
+        return head == null ? -1 : head.getDueTimeMs();
+    }
+
+    /**
+     * Hook called right before an action runs. VirtualClock uses it to move time forward to the action.
+     */
+    protected void beforeRun(ScheduledAction action) {
+    }
+
+    private synchronized ScheduledAction pollDue(long timeMs) {
+        ScheduledAction head = actions.peek();
+        if (head == null || head.getDueTimeMs() > timeMs) {
+            return null;
+        }
+        return actions.poll();
+    }
+}
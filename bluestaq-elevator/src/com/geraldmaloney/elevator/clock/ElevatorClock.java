@@ -0,0 +1,43 @@
+package com.geraldmaloney.elevator.clock;
+
+/**
+ * Time source and scheduler used by the elevator for every timed action (doors, travel, arrivals).
+ * SystemClock runs at wall-clock speed on the Pi. VirtualClock runs the same logic at CPU speed
+ * for simulations by jumping straight to the next due event instead of waiting for it.
+ */
+public interface ElevatorClock {
+
+    /**
+     * @return the current time of this clock in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * High-resolution reading of this clock in nanoseconds, on the same time line as currentTimeMillis().
+     * Used to measure tick jitter. Clocks without sub-millisecond resolution just scale the millisecond time.
+     */
+    default long nanoTime() {
+        return currentTimeMillis() * 1_000_000;
+    }
+
+    /**
+     * Blocks the caller (or advances virtual time) for the given number of milliseconds.
+     * Any scheduled actions that fall due during the wait are run in time order.
+     * @param ms time to wait in milliseconds
+     */
+    void sleep(long ms);
+
+    /**
+     * Schedules an action to run once the clock reaches now + delayMs.
+     * Actions only run from the thread that calls sleep() or runDueActions(), never in the background.
+     * @param delayMs delay in milliseconds from the current clock time
+     * @param action the work to run
+     * @return handle that can be used to cancel the action before it runs
+     */
+    ScheduledAction schedule(long delayMs, Runnable action);
+
+    /**
+     * Runs every scheduled action whose due time has been reached.
+     */
+    void runDueActions();
+}
@@ -0,0 +1,133 @@
+package com.geraldmaloney.elevator.clock;
+
+/**
+ * Fixed-rate control loop, like ScheduledExecutorService.scheduleAtFixedRate but on an ElevatorClock.
+ * Tick n is due at start + n * period no matter how long earlier ticks took, so the loop doesn't drift
+ * the way sleep-after-work does. Between ticks the clock's scheduled actions (door and travel
+ * transitions) run at their own due times.
+ *
+ * If a tick's work runs past the next deadline (e.g. a blocking emergency sequence), that is an overrun:
+ * the missed ticks are skipped rather than run back to back, and the loop realigns to the next deadline.
+ * Overruns are measured with clock.nanoTime(), so on a PacedClock real lag (slow GPIO, GC) counts even though
+ * virtual time stood still during the tick; the wait for the realigned deadline then moves virtual time up to it.
+ * A recording logs those skips and replay reproduces them with skipTicks().
+ */
+public class FixedRateTickEngine {
+
+    /**
+     * Told about every tick, for metrics.
+     */
+    public interface TickListener {
+        /**
+         * @param latenessNanos how long after its deadline the tick actually started
+         * @param workNanos how long the tick's work took
+         * @param skippedTicks deadlines skipped because the previous tick overran (0 normally)
+         */
+        void onTick(long latenessNanos, long workNanos, long skippedTicks);
+    }
+
+    private final ElevatorClock clock;
+    private final long periodMs;
+    private TickListener listener;
+    private volatile boolean running;
+    private long forcedSkip;                // Deadlines to skip after the current tick, set by skipTicks()
+
+    private long tickCount;
+    private long overrunCount;
+    private long skippedTickCount;
+    private long maxLatenessNanos;
+
+    public FixedRateTickEngine(ElevatorClock clock, long periodMs) {
+        if (periodMs <= 0) {
+            throw new IllegalArgumentException("Tick period must be positive: " + periodMs);
+        }
+        this.clock = clock;
+        this.periodMs = periodMs;
+    }
+
+    public void setTickListener(TickListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the tick at a fixed rate on the calling thread until stop() is called (usually from inside the tick).
+     */
+    public void run(Runnable tick) {
+        running = true;
+        long startMs = clock.currentTimeMillis();
+        long nextTick = 0;
+        long skipped = 0;
+
+        while (running) {
+            long deadlineMs = startMs + nextTick * periodMs;
+            long now = clock.currentTimeMillis();
+            if (now < deadlineMs) {
+                clock.sleep(deadlineMs - now);
+            }
+            if (!running || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            long workStarted = clock.nanoTime();
+            long latenessNanos = Math.max(0, workStarted - deadlineMs * 1_000_000);
+            tick.run();
+            long workNanos = clock.nanoTime() - workStarted;
+
+            tickCount++;
+            maxLatenessNanos = Math.max(maxLatenessNanos, latenessNanos);
+            if (listener != null) {
+                listener.onTick(latenessNanos, workNanos, skipped);
+            }
+
+            // Next deadline still ahead? Otherwise the work overran - skip every deadline already passed
+            nextTick++;
+            long overrunNanos = clock.nanoTime() - (startMs + nextTick * periodMs) * 1_000_000;
+            long missed = (overrunNanos >= 0) ? overrunNanos / (periodMs * 1_000_000) + 1 : 0;
+            missed = Math.max(missed, forcedSkip);
+            forcedSkip = 0;
+            if (missed > 0) {
+                overrunCount++;
+                skippedTickCount += missed;
+                nextTick += missed;
+                skipped = missed;
+            } else {
+                skipped = 0;
+            }
+        }
+    }
+
+    /**
+     * Skips at least the given number of deadlines after the current tick, as if it had overrun.
+     * Replay uses this to reproduce the skips of a run recorded on wall-clock pace.
+     */
+    public void skipTicks(long ticks) {
+        forcedSkip = Math.max(forcedSkip, ticks);
+    }
+
+    /**
+     * Ends the loop after the current tick.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public long getPeriodMs() {
+        return periodMs;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    public long getSkippedTickCount() {
+        return skippedTickCount;
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos;
+    }
+}
@@ -0,0 +1,87 @@
+package com.geraldmaloney.elevator.clock;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Virtual time held to the pace of the wall clock - what the controller runs on in the field.
+ * Time only moves when sleep() is called and moves by exactly the amount asked for, like VirtualClock,
+ * but every step waits until the wall clock has caught up. Scheduled actions fire on time in the real world,
+ * while the logic only ever sees exact virtual times: a late wake-up (GC, slow LCD write) shows up as lag,
+ * not as a different ordering of events, so a recorded run replays identically on a VirtualClock.
+ */
+public class PacedClock extends VirtualClock {
+
+    private static final long SPIN_THRESHOLD_NANOS = 2_000_000;     // Park, rather than sleep, for the last 2 ms
+
+    private final long originMs;            // Virtual time when the clock was created
+    private final long originNanos;         // System.nanoTime() at that moment
+
+    public PacedClock() {
+        this(System.currentTimeMillis());
+    }
+
+    public PacedClock(long startTimeMs) {
+        super(startTimeMs);
+        this.originMs = startTimeMs;
+        this.originNanos = System.nanoTime();
+    }
+
+    /**
+     * @return wall-clock time on this clock's time line - ahead of currentTimeMillis() when the clock is lagging
+     */
+    @Override
+    public long nanoTime() {
+        return originMs * 1_000_000 + (System.nanoTime() - originNanos);
+    }
+
+    /**
+     * @return how far the wall clock is ahead of virtual time, in nanoseconds (0 when keeping pace)
+     */
+    public long getLagNanos() {
+        return Math.max(0, nanoTime() - currentTimeMillis() * 1_000_000);
+    }
+
+    /**
+     * Advances virtual time by ms, running each due action once the wall clock reaches its due time.
+     */
+    @Override
+    public void sleep(long ms) {
+        long target = currentTimeMillis() + Math.max(0, ms);
+        long nextDue;
+        while ((nextDue = peekNextDueTime()) != -1 && nextDue <= target) {
+            if (!waitForWall(nextDue)) {
+                return;
+            }
+            advanceTo(nextDue);
+        }
+        if (waitForWall(target)) {
+            advanceTo(target);
+        }
+    }
+
+    /**
+     * Blocks until the wall clock reaches the given virtual time.
+     * @return false if the thread was interrupted
+     */
+    private boolean waitForWall(long timeMs) {
+        long wakeNanos = timeMs * 1_000_000;
+        long remaining;
+        while ((remaining = wakeNanos - nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                try {
+                    Thread.sleep((remaining - SPIN_THRESHOLD_NANOS) / 1_000_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            } else {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.geraldmaloney.elevator.clock;
+
+/**
+ * A unit of work queued on an ElevatorClock.
+ * Ordered by due time, then by the order it was scheduled in so ties stay deterministic.
+ */
+public final class ScheduledAction implements Comparable<ScheduledAction> {
+
+    private final long dueTimeMs;           // Clock time the action becomes due
+    private final long sequence;            // Tie breaker for actions due at the same time
+    private final Runnable action;          // Work to run
+    private volatile boolean cancelled;     // Cancelled actions are skipped when they come due
+
+    ScheduledAction(long dueTimeMs, long sequence, Runnable action) {
+        this.dueTimeMs = dueTimeMs;
+        this.sequence = sequence;
+        this.action = action;
+    }
+
+    /**
+     * Prevents the action from running if it has not run yet.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long getDueTimeMs() {
+        return dueTimeMs;
+    }
+
+    void run() {
+        if (!cancelled) {
+            action.run();
+        }
+    }
+
+    @Override
+    public int compareTo(ScheduledAction other) {
+        int byTime = Long.compare(dueTimeMs, other.dueTimeMs);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
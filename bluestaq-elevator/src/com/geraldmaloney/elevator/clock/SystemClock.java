@@ -0,0 +1,31 @@
+package com.geraldmaloney.elevator.clock;
+
+/**
+ * Wall-clock implementation used on the Raspberry Pi.
+ * sleep() really blocks the calling thread, waking up early to run scheduled actions on time.
+ */
+public class SystemClock extends AbstractClock {
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public void sleep(long ms) {
+        long wakeTime = currentTimeMillis() + ms;
+        runDueActions();
+        long now;
+        while ((now = currentTimeMillis()) < wakeTime) {
+            long nextDue = peekNextDueTime();
+            long until = (nextDue == -1) ? wakeTime : Math.min(wakeTime, nextDue);
+            try {
+                Thread.sleep(Math.max(1, until - now));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            runDueActions();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.FloorRequestSet;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+import java.util.List;
+
+/**
+ * Decides which car in a group answers a hall call. Cars in an emergency mode (ESTOP, fire, recall, overload)
+ * are out of service and never chosen.
+ */
+public interface CarSelectionPolicy {
+
+    int NO_CAR = -1;            // Every car in the group is out of service
+
+    /**
+     * @param cars every car in the group
+     * @param floor the floor the hall call was made from
+     * @return index into cars of the car that should answer the call, or NO_CAR
+     */
+    int selectCar(List<? extends AbstractElevator> cars, int floor);
+
+    /**
+     * Picks a car for an Up/Down landing call. A car heading the other way passes the call by until its
+     * return trip, so direction-aware policies should cost that turnaround.
+     * Policies that ignore direction just answer the floor call.
+     * @param direction which landing button was pressed
+     */
+    default int selectCar(List<? extends AbstractElevator> cars, int floor, HallCallDirection direction) {
+        return selectCar(cars, floor);
+    }
+
+    /**
+     * Picks a car for a destination call - the rider keyed in where they are going before boarding.
+     * Policies that don't care about the destination just answer the Up/Down call it implies.
+     * @param committedDestinations per car, floors it has promised to riders who have not boarded yet
+     */
+    default int selectCar(List<? extends AbstractElevator> cars, int origin, int destination,
+                          List<FloorRequestSet> committedDestinations) {
+        return selectCar(cars, origin, HallCallDirection.between(origin, destination));
+    }
+}
@@ -0,0 +1,136 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.FloorRequestSet;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+/**
+ * LOOK with a deadline: once any call has waited longer than the deadline, the car heads straight for the
+ * oldest such call (serving calls on the way), picks everyone up there, then goes back to sweeping.
+ * Keeps LOOK's throughput while capping the worst wait when traffic piles up at one end of the building.
+ * Each call is timestamped when it is queued, so the bound holds however long the car keeps extending its sweep.
+ * The default scheduling; set the deadline with -Delevator.dispatch.deadline.ms.
+ */
+public class DeadlineStrategy extends LookStrategy {
+
+    public static final long DEFAULT_DEADLINE_MS = 90_000;
+    public static final String DEADLINE_PROPERTY = "elevator.dispatch.deadline.ms";
+
+    private final long deadlineMs;
+
+    /**
+     * Deadline from -Delevator.dispatch.deadline.ms, 90 s if unset.
+     */
+    public DeadlineStrategy() {
+        this(Long.getLong(DEADLINE_PROPERTY, DEFAULT_DEADLINE_MS));
+    }
+
+    public DeadlineStrategy(long deadlineMs) {
+        if (deadlineMs <= 0) {
+            throw new IllegalArgumentException("Dispatch deadline must be positive: " + deadlineMs + " ms");
+        }
+        this.deadlineMs = deadlineMs;
+    }
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    @Override
+    public int nextFloor(AbstractElevator car) {
+        int overdue = oldestOverdueFloor(car);
+        return overdue != FloorRequestSet.NONE ? overdue : super.nextFloor(car);
+    }
+
+    @Override
+    public boolean shouldStopAt(AbstractElevator car, int floor, ElevatorStatus direction) {
+        return super.shouldStopAt(car, floor, direction) || isOverdue(car, floor);
+    }
+
+    @Override
+    public boolean answersHallCall(AbstractElevator car, int floor, ElevatorStatus arrivingDirection, HallCallDirection call) {
+        return super.answersHallCall(car, floor, arrivingDirection, call) || isOverdue(car, floor);
+    }
+
+    /**
+     * Aging: a car that has finished its sweep turns towards the oldest call rather than the farthest one.
+     */
+    @Override
+    public int nextPrimaryDestination(AbstractElevator car) {
+        int overdue = oldestOverdueFloor(car);
+        if (overdue != FloorRequestSet.NONE) {
+            return overdue;
+        }
+        int oldest = oldestRequestFloor(car, Long.MAX_VALUE);
+        if (car.getElevatorStatus() != ElevatorStatus.STOPPED || oldest == FloorRequestSet.NONE) {
+            return super.nextPrimaryDestination(car);
+        }
+        int currentFloor = car.getCurrentFloor();
+        if (oldest > currentFloor) {
+            return highestRequest(car);
+        }
+        return oldest < currentFloor ? lowestRequest(car) : oldest;
+    }
+
+    /**
+     * A steady stream of riders at one landing would otherwise keep the doors open indefinitely.
+     */
+    @Override
+    public boolean mayExtendDoorHold(AbstractElevator car) {
+        int overdue = oldestOverdueFloor(car);
+        return overdue == FloorRequestSet.NONE || overdue == car.getCurrentFloor();
+    }
+
+    private boolean isOverdue(AbstractElevator car, int floor) {
+        long requestedAt = car.getRequestTimeMs(floor);
+        return requestedAt != FloorRequestSet.NONE && car.getClock().currentTimeMillis() - requestedAt >= deadlineMs;
+    }
+
+    /**
+     * @return floor of the call that has waited longest past the deadline, or FloorRequestSet.NONE
+     */
+    private int oldestOverdueFloor(AbstractElevator car) {
+        return oldestRequestFloor(car, car.getClock().currentTimeMillis() - deadlineMs);
+    }
+
+    /**
+     * @return floor of the oldest call made at or before the cutoff (the lowest floor on a tie), or FloorRequestSet.NONE
+     */
+    private static int oldestRequestFloor(AbstractElevator car, long cutoff) {
+        int oldest = oldestIn(car.getCarCalls(), cutoff);
+        oldest = olderOf(car, oldest, oldestIn(car.getHallCalls(HallCallDirection.UP), cutoff));
+        return olderOf(car, oldest, oldestIn(car.getHallCalls(HallCallDirection.DOWN), cutoff));
+    }
+
+    /**
+     * Same, within one set. Walks only the requested floors, so an idle car's status line costs next to nothing.
+     */
+    private static int oldestIn(FloorRequestSet calls, long cutoff) {
+        int oldestFloor = FloorRequestSet.NONE;
+        long oldestMs = Long.MAX_VALUE;
+        for (int floor = calls.lowest(); floor != FloorRequestSet.NONE; floor = calls.nextAbove(floor)) {
+            long requestedAt = calls.requestedAtMs(floor);
+            if (requestedAt <= cutoff && requestedAt < oldestMs) {
+                oldestFloor = floor;
+                oldestMs = requestedAt;
+            }
+        }
+        return oldestFloor;
+    }
+
+    /**
+     * @return whichever floor's oldest call came first (the lower floor on a tie); NONE means no call
+     */
+    private static int olderOf(AbstractElevator car, int a, int b) {
+        if (a == FloorRequestSet.NONE) {
+            return b;
+        }
+        if (b == FloorRequestSet.NONE) {
+            return a;
+        }
+        long aMs = car.getRequestTimeMs(a);
+        long bMs = car.getRequestTimeMs(b);
+        return (bMs < aMs || (bMs == aMs && b < a)) ? b : a;
+    }
+}
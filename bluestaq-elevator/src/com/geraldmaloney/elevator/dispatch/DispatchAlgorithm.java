@@ -0,0 +1,43 @@
+package com.geraldmaloney.elevator.dispatch;
+
+/**
+ * The per-car scheduling engines, chosen at startup with -Delevator.dispatch=LOOK|SCAN|SSTF|DEADLINE.
+ */
+public enum DispatchAlgorithm {
+    LOOK,           // Sweep while there are calls ahead, then turn - the original behaviour, waits unbounded
+    SCAN,           // Sweep to the end of the shaft every time
+    SSTF,           // Nearest call first
+    DEADLINE;       // LOOK, but calls waiting past a deadline jump the queue - the default
+
+    public static final String PROPERTY = "elevator.dispatch";
+
+    public DispatchStrategy create() {
+        return switch (this) {
+            case LOOK -> new LookStrategy();
+            case SCAN -> new ScanStrategy();
+            case SSTF -> new NearestFirstStrategy();
+            case DEADLINE -> new DeadlineStrategy();
+        };
+    }
+
+    /**
+     * Parses an algorithm name (any case), falling back to the default for null or unknown names.
+     */
+    public static DispatchAlgorithm parse(String name, DispatchAlgorithm fallback) {
+        if (name != null) {
+            for (DispatchAlgorithm algorithm : values()) {
+                if (algorithm.name().equalsIgnoreCase(name.trim())) {
+                    return algorithm;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * @return the algorithm set by -Delevator.dispatch, DEADLINE if unset
+     */
+    public static DispatchAlgorithm fromSystemProperty() {
+        return parse(System.getProperty(PROPERTY), DEADLINE);
+    }
+}
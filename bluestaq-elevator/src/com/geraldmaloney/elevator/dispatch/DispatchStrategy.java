@@ -0,0 +1,56 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+/**
+ * Decides the order in which one car serves its calls. The car owns the calls and the motion;
+ * the strategy only answers the scheduling questions the car asks along the way.
+ * Group dispatch (which car gets a hall call) is a separate concern - see CarSelectionPolicy.
+ *
+ * Strategies read the car through its public accessors and must not change it. They are called on
+ * the car's control thread and should not allocate - they run every tick.
+ */
+public interface DispatchStrategy {
+
+    /**
+     * @return the floor the car should head for next - the current floor to answer a call right here -
+     * or FloorRequestSet.NONE if there is nowhere to go
+     */
+    int nextFloor(AbstractElevator car);
+
+    /**
+     * Asked as the car reaches (or, with a motion profile, nears) each floor on a run.
+     * @param direction the way the car is travelling
+     * @return true if the car should stop at the floor
+     */
+    boolean shouldStopAt(AbstractElevator car, int floor, ElevatorStatus direction);
+
+    /**
+     * Asked for each hall call at a floor the car has just stopped at.
+     * @param arrivingDirection the way the car was travelling when it stopped
+     * @return true if the stop answers the call (the rider gets on), false to leave it for a later pass
+     */
+    boolean answersHallCall(AbstractElevator car, int floor, ElevatorStatus arrivingDirection, HallCallDirection call);
+
+    /**
+     * A new request for the floor is about to be queued.
+     * @return the car's primary destination (the end of its current sweep) once the request is added
+     */
+    int primaryDestinationFor(AbstractElevator car, int floor);
+
+    /**
+     * The car has no primary destination but still has calls to serve (it finished a sweep).
+     * @return the next primary destination
+     */
+    int nextPrimaryDestination(AbstractElevator car);
+
+    /**
+     * Asked when OPEN or a rider at the landing would hold the doors open longer at the current floor.
+     * @return false to let the door cycle run out so calls waiting elsewhere are not held up
+     */
+    default boolean mayExtendDoorHold(AbstractElevator car) {
+        return true;
+    }
+}
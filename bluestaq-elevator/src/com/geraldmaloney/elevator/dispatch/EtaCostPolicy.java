@@ -0,0 +1,204 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.FloorRequestSet;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+import java.util.List;
+
+/**
+ * Picks the car with the lowest estimated cost to answer a hall call.
+ * Cost = estimated time of arrival (travel + stops on the way, including a turnaround if the call
+ * is behind the car) + a penalty for reversing direction + a penalty per queued request.
+ * An Up/Down call going against the car's sweep counts as behind it unless the car turns around there,
+ * since the car passes it by until the return trip.
+ * Travel comes from each car's Building travel-time table, so express zones and slow floors count; with a
+ * motion profile each leg between queued stops is its own accelerate-cruise-brake trip.
+ * For destination calls, a car that already stops at the rider's destination saves the cost of an extra stop.
+ * Unless given a fixed stop time, each stop costs what the car's DoorDwell expects one to take, so the
+ * estimate follows the dwell mode and what the car has learned.
+ */
+public class EtaCostPolicy implements CarSelectionPolicy {
+
+    public static final long DEFAULT_FLOOR_TRAVEL_MS = 1500;   // Mirrors PassengerElevator's floor-by-floor timing
+    public static final long STOP_TIME_FROM_DWELL = -1;        // Ask each car's DoorDwell instead of a fixed stop time
+
+    private final long stopTimeMs;          // Time lost for every intermediate stop, or STOP_TIME_FROM_DWELL
+    private final long reversalPenaltyMs;   // Extra cost when the car has to turn around to reach the call
+    private final long loadPenaltyMs;       // Extra cost per request already in the car's queue
+
+    public EtaCostPolicy() {
+        this(STOP_TIME_FROM_DWELL, DEFAULT_FLOOR_TRAVEL_MS * 2, DEFAULT_FLOOR_TRAVEL_MS);
+    }
+
+    public EtaCostPolicy(long stopTimeMs, long reversalPenaltyMs, long loadPenaltyMs) {
+        this.stopTimeMs = stopTimeMs;
+        this.reversalPenaltyMs = reversalPenaltyMs;
+        this.loadPenaltyMs = loadPenaltyMs;
+    }
+
+    @Override
+    public int selectCar(List<? extends AbstractElevator> cars, int floor) {
+        return selectCar(cars, floor, (HallCallDirection) null);
+    }
+
+    @Override
+    public int selectCar(List<? extends AbstractElevator> cars, int floor, HallCallDirection direction) {
+        int best = NO_CAR;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < cars.size(); i++) {
+            if (cars.get(i).isInEmergency()) {
+                continue;
+            }
+            long cost = cost(cars.get(i), floor, direction);
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int selectCar(List<? extends AbstractElevator> cars, int origin, int destination,
+                         List<FloorRequestSet> committedDestinations) {
+        HallCallDirection direction = HallCallDirection.between(origin, destination);
+        int best = NO_CAR;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < cars.size(); i++) {
+            AbstractElevator car = cars.get(i);
+            if (car.isInEmergency()) {
+                continue;
+            }
+            long cost = cost(car, origin, direction);
+            if (!car.hasFloorRequest(destination) && !committedDestinations.get(i).contains(destination)) {
+                cost += stopTimeMs(car);    // Rider would add a new stop to this car's run
+            }
+            if (cost < bestCost) {
+                best = i;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Total cost of sending this car to the floor. Lower is better.
+     */
+    public long cost(AbstractElevator car, int floor) {
+        return cost(car, floor, null);
+    }
+
+    /**
+     * Same, for a call in the given direction (null for a plain floor call).
+     */
+    public long cost(AbstractElevator car, int floor, HallCallDirection call) {
+        long cost = estimateArrivalMs(car, floor, call) + loadPenaltyMs * car.getRequestCount();
+        if (!isAhead(car, floor, call)) {
+            cost += reversalPenaltyMs;
+        }
+        return cost;
+    }
+
+    /**
+     * Estimates how long until the car could stop at the floor, following its current sweep.
+     */
+    public long estimateArrivalMs(AbstractElevator car, int floor) {
+        return estimateArrivalMs(car, floor, null);
+    }
+
+    /**
+     * Same, for a call in the given direction (null for a plain floor call).
+     */
+    public long estimateArrivalMs(AbstractElevator car, int floor, HallCallDirection call) {
+        Building building = car.getBuilding();
+        int current = car.getCurrentFloor();
+        ElevatorStatus direction = effectiveDirection(car);
+
+        if (direction == ElevatorStatus.STOPPED) {
+            return building.travelMs(current, floor);
+        }
+
+        if (isAhead(car, floor, call)) {
+            return travelViaStopsMs(car, current, floor) + countStopsBetween(car, current, floor) * stopTimeMs(car);
+        }
+
+        // Call is behind the car: finish the sweep to the turnaround floor, then come back
+        int turnaround = car.getPrimaryDestination() != -1 ? car.getPrimaryDestination() : current;
+        return travelViaStopsMs(car, current, turnaround) + building.travelMs(turnaround, floor)
+                + car.getRequestCount() * stopTimeMs(car);
+    }
+
+    private long stopTimeMs(AbstractElevator car) {
+        return stopTimeMs == STOP_TIME_FROM_DWELL ? car.getDoorDwell().expectedStopMs() : stopTimeMs;
+    }
+
+    /**
+     * Travel time between two floors broken at every queued stop in between. Same as one trip for a
+     * floor-by-floor car; with a motion profile each stop costs another acceleration and braking.
+     */
+    private long travelViaStopsMs(AbstractElevator car, int from, int to) {
+        Building building = car.getBuilding();
+        if (!building.hasMotionProfile() || from == to) {
+            return building.travelMs(from, to);
+        }
+        int step = to > from ? 1 : -1;
+        int previous = from;
+        long ms = 0;
+        for (int f = from + step; f != to; f += step) {
+            if (car.hasFloorRequest(f)) {
+                ms += building.travelMs(previous, f);
+                previous = f;
+            }
+        }
+        return ms + building.travelMs(previous, to);
+    }
+
+    /**
+     * True if the car is idle or will answer the call on its current sweep: the floor lies ahead and the call
+     * goes the car's way, or the car turns around there (nothing queued beyond it).
+     */
+    private boolean isAhead(AbstractElevator car, int floor, HallCallDirection call) {
+        int current = car.getCurrentFloor();
+        return switch (effectiveDirection(car)) {
+            case MOVING_UP -> floor >= current
+                    && (call == null || call == HallCallDirection.UP || !car.hasRequestsAbove(floor));
+            case MOVING_DOWN -> floor <= current
+                    && (call == null || call == HallCallDirection.DOWN || !car.hasRequestsBelow(floor));
+            case STOPPED -> true;
+        };
+    }
+
+    /**
+     * Direction the car is committed to, including a car paused at a stop mid-sweep.
+     */
+    private ElevatorStatus effectiveDirection(AbstractElevator car) {
+        ElevatorStatus status = car.getElevatorStatus();
+        int primary = car.getPrimaryDestination();
+        if (status == ElevatorStatus.STOPPED && primary != -1 && car.getRequestCount() > 0) {
+            if (primary > car.getCurrentFloor()) {
+                return ElevatorStatus.MOVING_UP;
+            } else if (primary < car.getCurrentFloor()) {
+                return ElevatorStatus.MOVING_DOWN;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Counts queued stops strictly between two floors.
+     */
+    private int countStopsBetween(AbstractElevator car, int from, int to) {
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+        int stops = 0;
+        for (int f = low + 1; f < high; f++) {
+            if (car.hasFloorRequest(f)) {
+                stops++;
+            }
+        }
+        return stops;
+    }
+}
@@ -0,0 +1,184 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.FloorRequestSet;
+import com.geraldmaloney.elevator.HallCallDirection;
+import com.geraldmaloney.elevator.log.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Owns a bank of cars and decides which one answers each hall call.
+ * Car calls (buttons inside a car) still go straight to that car's pressFloor.
+ * Hall calls can be plain floors, Up/Down landing buttons, or destination calls keyed in at the landing.
+ */
+public class GroupController {
+
+    private final List<AbstractElevator> cars;
+    private final CarSelectionPolicy policy;
+    private final List<FloorRequestSet> committedDestinations = new ArrayList<>();  // Per car, destinations of riders not yet picked up
+    private final List<List<PendingRide>> pendingRides = new ArrayList<>();         // Per car, destination calls waiting for the car
+
+    private record PendingRide(int origin, int destination) { }
+
+    public GroupController(List<? extends AbstractElevator> cars, CarSelectionPolicy policy) {
+        if (cars.isEmpty()) {
+            throw new IllegalArgumentException("Group needs at least one car.");
+        }
+        this.cars = new ArrayList<>(cars);
+        this.policy = policy;
+        for (AbstractElevator car : this.cars) {
+            FloorRequestSet committed = new FloorRequestSet(car.getMinFloor(), car.getMaxFloor());
+            List<PendingRide> rides = new ArrayList<>();
+            committedDestinations.add(committed);
+            pendingRides.add(rides);
+            car.addArrivalListener((elevator, floor) -> {
+                committed.remove(floor);
+                // Riders who keyed in their destination board now - register it for them. Only a stop that
+                // cleared their hall call is going their way; otherwise they wait for the car's next visit.
+                rides.removeIf(ride -> {
+                    if (ride.origin() != floor
+                            || elevator.hasHallCall(floor, HallCallDirection.between(ride.origin(), ride.destination()))) {
+                        return false;
+                    }
+                    elevator.pressFloor(ride.destination());
+                    return true;
+                });
+            });
+        }
+    }
+
+    /**
+     * Assigns a hall call to the best car according to the policy and queues it on that car.
+     * @param floor floor the call was made from
+     * @return index of the car that was assigned, or CarSelectionPolicy.NO_CAR if every car is out of service
+     */
+    public int assignHallCall(int floor) {
+        int carIndex = policy.selectCar(cars, floor);
+        if (carIndex == CarSelectionPolicy.NO_CAR) {
+            Log.info("No car in service - hall call at floor " + floor + " not taken.");
+            return carIndex;
+        }
+        AbstractElevator car = cars.get(carIndex);
+        if (!car.hasFloorRequest(floor) && floor != car.getCurrentFloor()) {
+            car.pressFloor(floor);
+        }
+        return carIndex;
+    }
+
+    /**
+     * Assigns an Up/Down hall call to the best car according to the policy.
+     * @param floor floor the call was made from
+     * @param direction which landing button was pressed
+     * @return index of the car that was assigned, or CarSelectionPolicy.NO_CAR if every car is out of service
+     */
+    public int assignHallCall(int floor, HallCallDirection direction) {
+        int carIndex = policy.selectCar(cars, floor, direction);
+        if (carIndex == CarSelectionPolicy.NO_CAR) {
+            Log.info("No car in service - hall call " + direction + " at floor " + floor + " not taken.");
+            return carIndex;
+        }
+        AbstractElevator car = cars.get(carIndex);
+        if (!car.hasHallCall(floor, direction)) {
+            car.pressHallCall(floor, direction);
+        }
+        return carIndex;
+    }
+
+    /**
+     * Assigns a destination call. The rider keys in where they're going at the landing and is told which car to take,
+     * so riders headed for the same floor can be grouped into the same car. The destination is registered as a
+     * car call when the car stops at the rider's floor (at once if it is already standing there).
+     * @param origin floor the rider is waiting on
+     * @param destination floor the rider wants to go to
+     * @return index of the car the rider should take, or CarSelectionPolicy.NO_CAR if every car is out of service
+     */
+    public int assignDestinationCall(int origin, int destination) {
+        if (origin == destination) {
+            throw new IllegalArgumentException("Destination call from floor " + origin + " to itself.");
+        }
+        int carIndex = policy.selectCar(cars, origin, destination, committedDestinations);
+        if (carIndex == CarSelectionPolicy.NO_CAR) {
+            Log.info("No car in service - destination call " + origin + ">" + destination + " not taken.");
+            return carIndex;
+        }
+        AbstractElevator car = cars.get(carIndex);
+        HallCallDirection direction = HallCallDirection.between(origin, destination);
+        boolean standingHere = car.getCurrentFloor() == origin && car.getElevatorStatus() == ElevatorStatus.STOPPED;
+        if (!car.hasHallCall(origin, direction)) {
+            car.pressHallCall(origin, direction);
+        }
+        if (standingHere) {
+            car.pressFloor(destination);
+        } else {
+            pendingRides.get(carIndex).add(new PendingRide(origin, destination));
+            if (destination >= car.getMinFloor() && destination <= car.getMaxFloor()) {
+                committedDestinations.get(carIndex).add(destination);
+            }
+        }
+        Log.info("Floor " + car.getCurrentFloorString(destination) + ": please take Car " + (carIndex + 1));
+        return carIndex;
+    }
+
+    /**
+     * Handles a destination call keyed in at a landing as "origin>destination", e.g. "2>9".
+     * Main and ReplayRunner offer every input here first; anything else goes to the car as usual.
+     * @return true if the input was a destination call (accepted or rejected), false to pass it on
+     */
+    public boolean handleDestinationInput(String input) {
+        int separator = input.indexOf('>');
+        if (separator <= 0 || separator == input.length() - 1) {
+            return false;
+        }
+        int origin;
+        int destination;
+        try {
+            origin = Integer.parseInt(input.substring(0, separator).trim());
+            destination = Integer.parseInt(input.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!servesFloor(origin) || !servesFloor(destination) || origin == destination) {
+            Log.info("Invalid destination call: " + input);
+            return true;
+        }
+        assignDestinationCall(origin, destination);            // Cars in an emergency are never picked
+        return true;
+    }
+
+    /**
+     * @return true if some car in the group serves the floor
+     */
+    private boolean servesFloor(int floor) {
+        for (AbstractElevator car : cars) {
+            if (floor >= car.getMinFloor() && floor <= car.getMaxFloor() && car.getBuilding().isServed(floor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advances every car by one step. Used when all cars share one control loop.
+     */
+    public void tick() {
+        for (AbstractElevator car : cars) {
+            car.goToNextFloor();
+        }
+    }
+
+    public AbstractElevator getCar(int index) {
+        return cars.get(index);
+    }
+
+    public List<AbstractElevator> getCars() {
+        return Collections.unmodifiableList(cars);
+    }
+
+    public int size() {
+        return cars.size();
+    }
+}
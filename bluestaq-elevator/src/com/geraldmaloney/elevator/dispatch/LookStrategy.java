@@ -0,0 +1,181 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.FloorRequestSet;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+/**
+ * LOOK (collective control): sweep in one direction, stopping for car calls and for hall calls going the
+ * same way, until nothing is left ahead; then turn around. Opposite hall calls are answered at the end
+ * of the run. The original PassengerElevator scheduling. A call can wait as long as the car keeps
+ * finding work ahead of it - DeadlineStrategy bounds that.
+ */
+public class LookStrategy implements DispatchStrategy {
+
+    @Override
+    public int nextFloor(AbstractElevator car) {
+        int currentFloor = car.getCurrentFloor();
+        int primaryDestination = car.getPrimaryDestination();
+        int bestFloor = FloorRequestSet.NONE;
+
+        // Car calls plus hall calls going the same way
+        ElevatorStatus direction = effectiveDirection(car);
+        if (direction == ElevatorStatus.MOVING_UP) {
+            bestFloor = closestOf(currentFloor, car.getCarCalls().nextAbove(currentFloor),
+                    car.getHallCalls(HallCallDirection.UP).nextAbove(currentFloor));
+        } else if (direction == ElevatorStatus.MOVING_DOWN) {
+            bestFloor = closestOf(currentFloor, car.getCarCalls().nextBelow(currentFloor),
+                    car.getHallCalls(HallCallDirection.DOWN).nextBelow(currentFloor));
+        }
+
+        // If no valid floor in current direction, return primary destination
+        if (bestFloor == FloorRequestSet.NONE && primaryDestination != -1 && primaryDestination != currentFloor) {
+            bestFloor = primaryDestination;
+        }
+
+        // Hall call left on this floor while the car was passing through - answer it here
+        if (bestFloor == FloorRequestSet.NONE && car.hasFloorRequest(currentFloor)) {
+            bestFloor = currentFloor;
+        }
+
+        return bestFloor;
+    }
+
+    @Override
+    public boolean shouldStopAt(AbstractElevator car, int floor, ElevatorStatus direction) {
+        if (car.getCarCalls().contains(floor)) {
+            return true;
+        }
+        boolean up = car.hasHallCall(floor, HallCallDirection.UP);
+        boolean down = car.hasHallCall(floor, HallCallDirection.DOWN);
+        if (direction == ElevatorStatus.MOVING_UP) {
+            return up || (down && !car.hasRequestsAbove(floor));
+        }
+        if (direction == ElevatorStatus.MOVING_DOWN) {
+            return down || (up && !car.hasRequestsBelow(floor));
+        }
+        return up || down;
+    }
+
+    /**
+     * A hall call going the car's way is answered; an opposite one only when the car turns around here.
+     */
+    @Override
+    public boolean answersHallCall(AbstractElevator car, int floor, ElevatorStatus arrivingDirection, HallCallDirection call) {
+        return switch (arrivingDirection) {
+            case MOVING_UP -> call == HallCallDirection.UP || !car.hasRequestsAbove(floor);
+            case MOVING_DOWN -> call == HallCallDirection.DOWN || !car.hasRequestsBelow(floor);
+            case STOPPED -> true;
+        };
+    }
+
+    /**
+     * Extends (or starts) the current mission when a new request comes in.
+     */
+    @Override
+    public int primaryDestinationFor(AbstractElevator car, int floor) {
+        int currentFloor = car.getCurrentFloor();
+        int primaryDestination = car.getPrimaryDestination();
+        boolean noActiveMission = (primaryDestination == -1 || !car.hasPendingRequests());
+
+        if (noActiveMission) {
+            return floor;
+        }
+        // A car paused at a stop mid-sweep is still committed to the direction of its primary destination
+        ElevatorStatus direction = car.getElevatorStatus();
+        if (direction == ElevatorStatus.STOPPED) {
+            direction = primaryDestination > currentFloor ? ElevatorStatus.MOVING_UP : ElevatorStatus.MOVING_DOWN;
+        }
+        if (direction == ElevatorStatus.MOVING_UP && floor > currentFloor && floor > primaryDestination) {
+            return floor;
+        }
+        if (direction == ElevatorStatus.MOVING_DOWN && floor < currentFloor && floor < primaryDestination) {
+            return floor;
+        }
+        return primaryDestination;
+    }
+
+    /**
+     * Keeps going to the far end of the calls in the direction of travel; a stopped car heads for
+     * whichever end of the queue is farthest away.
+     */
+    @Override
+    public int nextPrimaryDestination(AbstractElevator car) {
+        int currentFloor = car.getCurrentFloor();
+        int highest = highestRequest(car);
+        int lowest = lowestRequest(car);
+
+        return switch (car.getElevatorStatus()) {
+            case MOVING_UP -> Math.max(highest, currentFloor);
+            case MOVING_DOWN -> Math.min(lowest, currentFloor);
+            case STOPPED -> (highest - currentFloor >= currentFloor - lowest) ? highest : lowest;
+        };
+    }
+
+    /**
+     * Direction the car is committed to: its travel direction, or for a car paused at a stop mid-sweep,
+     * the direction of its primary destination.
+     */
+    protected ElevatorStatus effectiveDirection(AbstractElevator car) {
+        ElevatorStatus direction = car.getElevatorStatus();
+        int primaryDestination = car.getPrimaryDestination();
+        if (direction == ElevatorStatus.STOPPED && primaryDestination != -1) {
+            if (primaryDestination > car.getCurrentFloor()) {
+                return ElevatorStatus.MOVING_UP;
+            } else if (primaryDestination < car.getCurrentFloor()) {
+                return ElevatorStatus.MOVING_DOWN;
+            }
+        }
+        return direction;
+    }
+
+    /**
+     * @return whichever floor is closer to the car, ignoring FloorRequestSet.NONE
+     */
+    protected static int closestOf(int currentFloor, int a, int b) {
+        if (a == FloorRequestSet.NONE) {
+            return b;
+        }
+        if (b == FloorRequestSet.NONE) {
+            return a;
+        }
+        return Math.abs(a - currentFloor) <= Math.abs(b - currentFloor) ? a : b;
+    }
+
+    /**
+     * @return closest floor strictly above with any call, or FloorRequestSet.NONE
+     */
+    protected static int nearestAbove(AbstractElevator car, int floor) {
+        int up = closestOf(floor, car.getHallCalls(HallCallDirection.UP).nextAbove(floor), car.getHallCalls(HallCallDirection.DOWN).nextAbove(floor));
+        return closestOf(floor, car.getCarCalls().nextAbove(floor), up);
+    }
+
+    /**
+     * @return closest floor strictly below with any call, or FloorRequestSet.NONE
+     */
+    protected static int nearestBelow(AbstractElevator car, int floor) {
+        int down = closestOf(floor, car.getHallCalls(HallCallDirection.UP).nextBelow(floor), car.getHallCalls(HallCallDirection.DOWN).nextBelow(floor));
+        return closestOf(floor, car.getCarCalls().nextBelow(floor), down);
+    }
+
+    /**
+     * @return highest floor with any call, or FloorRequestSet.NONE
+     */
+    protected static int highestRequest(AbstractElevator car) {
+        return Math.max(car.getCarCalls().highest(),
+                Math.max(car.getHallCalls(HallCallDirection.UP).highest(), car.getHallCalls(HallCallDirection.DOWN).highest()));
+    }
+
+    /**
+     * @return lowest floor with any call, or Integer.MAX_VALUE if there are none
+     */
+    protected static int lowestRequest(AbstractElevator car) {
+        return Math.min(lowestOf(car.getCarCalls()),
+                Math.min(lowestOf(car.getHallCalls(HallCallDirection.UP)), lowestOf(car.getHallCalls(HallCallDirection.DOWN))));
+    }
+
+    private static int lowestOf(FloorRequestSet requests) {
+        return requests.isEmpty() ? Integer.MAX_VALUE : requests.lowest();
+    }
+}
@@ -0,0 +1,29 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+
+import java.util.List;
+
+/**
+ * Naive baseline - always sends the car that is physically closest to the call,
+ * ignoring which way it is heading or how many stops it already has.
+ */
+public class NearestCarPolicy implements CarSelectionPolicy {
+
+    @Override
+    public int selectCar(List<? extends AbstractElevator> cars, int floor) {
+        int best = NO_CAR;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < cars.size(); i++) {
+            if (cars.get(i).isInEmergency()) {
+                continue;
+            }
+            int distance = Math.abs(cars.get(i).getCurrentFloor() - floor);
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,106 @@
+package com.geraldmaloney.elevator.dispatch;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+/**
+ * SCAN: like LOOK, but every sweep runs to the end of the shaft before turning, whether or not anyone
+ * called from up there - the terminal is the primary destination, and LOOK's next-floor choice does the
+ * rest. Opposite hall calls wait for the return pass. Costs empty travel at the ends, and in return no
+ * landing waits more than one round trip. The car passes the terminal without opening its doors unless
+ * someone called it there.
+ */
+public class ScanStrategy extends LookStrategy {
+
+    /**
+     * Car calls and same-direction hall calls; a hall call the other way only at the terminal, where the car turns.
+     */
+    @Override
+    public boolean shouldStopAt(AbstractElevator car, int floor, ElevatorStatus direction) {
+        if (car.getCarCalls().contains(floor)) {
+            return true;
+        }
+        boolean up = car.hasHallCall(floor, HallCallDirection.UP);
+        boolean down = car.hasHallCall(floor, HallCallDirection.DOWN);
+        if (direction == ElevatorStatus.MOVING_UP) {
+            return up || (down && floor == topTerminal(car));
+        }
+        if (direction == ElevatorStatus.MOVING_DOWN) {
+            return down || (up && floor == bottomTerminal(car));
+        }
+        return up || down;
+    }
+
+    @Override
+    public boolean answersHallCall(AbstractElevator car, int floor, ElevatorStatus arrivingDirection, HallCallDirection call) {
+        return switch (arrivingDirection) {
+            case MOVING_UP -> call == HallCallDirection.UP || floor == topTerminal(car);
+            case MOVING_DOWN -> call == HallCallDirection.DOWN || floor == bottomTerminal(car);
+            case STOPPED -> true;
+        };
+    }
+
+    /**
+     * A new sweep always aims for the terminal in the direction of the first call.
+     */
+    @Override
+    public int primaryDestinationFor(AbstractElevator car, int floor) {
+        int primaryDestination = car.getPrimaryDestination();
+        if (primaryDestination != -1 && car.hasPendingRequests()) {
+            return primaryDestination;
+        }
+        return floor > car.getCurrentFloor() ? topTerminal(car) : bottomTerminal(car);
+    }
+
+    /**
+     * At (or heading away from) one terminal, sweep to the other; a car stopped mid-shaft heads for the
+     * terminal on the side of its nearest call.
+     */
+    @Override
+    public int nextPrimaryDestination(AbstractElevator car) {
+        int currentFloor = car.getCurrentFloor();
+        int top = topTerminal(car);
+        int bottom = bottomTerminal(car);
+        if (currentFloor >= top) {
+            return bottom;
+        }
+        if (currentFloor <= bottom) {
+            return top;
+        }
+        return switch (car.getElevatorStatus()) {
+            case MOVING_UP -> top;
+            case MOVING_DOWN -> bottom;
+            case STOPPED -> {
+                int above = nearestAbove(car, currentFloor);
+                int below = nearestBelow(car, currentFloor);
+                yield closestOf(currentFloor, above, below) == below ? bottom : top;
+            }
+        };
+    }
+
+    /**
+     * @return highest floor the car can stop at
+     */
+    private static int topTerminal(AbstractElevator car) {
+        Building building = car.getBuilding();
+        int floor = building.getMaxFloor();
+        while (floor > building.getMinFloor() && !building.isServed(floor)) {
+            floor--;
+        }
+        return floor;
+    }
+
+    /**
+     * @return lowest floor the car can stop at
+     */
+    private static int bottomTerminal(AbstractElevator car) {
+        Building building = car.getBuilding();
+        int floor = building.getMinFloor();
+        while (floor < building.getMaxFloor() && !building.isServed(floor)) {
+            floor++;
+        }
+        return floor;
+    }
+}
@@ -0,0 +1,128 @@
+package com.geraldmaloney.elevator.display;
+
+import com.geraldmaloney.elevator.log.Log;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorator that moves slow display writes (LCD GPIO) off the control loop.
+ * updateDisplay drops the frame into a single-slot mailbox and returns immediately; a dedicated renderer
+ * thread draws whatever is newest. If the loop produces frames faster than the display can draw them,
+ * the older ones are simply replaced (coalesced) - only the latest state matters on a status screen.
+ */
+public class AsyncDisplayAdapter implements DisplayAdapter, AutoCloseable {
+
+    private final DisplayAdapter delegate;
+    private final AtomicReference<Frame> mailbox = new AtomicReference<>();
+    private final Thread renderer;
+    private volatile boolean running = true;
+    private String lastLine1;               // Last frame submitted, so a repeat of it doesn't allocate a new Frame
+    private String lastLine2;
+
+    private final AtomicLong framesSubmitted = new AtomicLong();
+    private final AtomicLong framesRendered = new AtomicLong();
+    private final AtomicLong framesCoalesced = new AtomicLong();    // Replaced in the mailbox before being drawn
+    private final AtomicLong framesDropped = new AtomicLong();      // Submitted after close, or failed to draw
+    private final AtomicLong framesUnchanged = new AtomicLong();    // Same text as the previous frame - nothing to draw
+
+    public AsyncDisplayAdapter(DisplayAdapter delegate) {
+        this(delegate, task -> {
+            Thread thread = new Thread(task, "display-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renders on a thread from the given factory - e.g. CarThreads' virtual threads, so an idle renderer
+     * parked in the mailbox wait doesn't hold an OS thread per car.
+     */
+    public AsyncDisplayAdapter(DisplayAdapter delegate, ThreadFactory threads) {
+        this.delegate = delegate;
+        this.renderer = threads.newThread(this::renderLoop);
+        this.renderer.start();
+    }
+
+    @Override
+    public void updateDisplay(String line1, String line2) {
+        framesSubmitted.incrementAndGet();
+        if (!running) {
+            framesDropped.incrementAndGet();
+            return;
+        }
+        if (line1.equals(lastLine1) && line2.equals(lastLine2)) {
+            framesUnchanged.incrementAndGet();          // The screen already shows (or is about to show) this
+            return;
+        }
+        lastLine1 = line1;
+        lastLine2 = line2;
+        if (mailbox.getAndSet(new Frame(line1, line2)) != null) {
+            framesCoalesced.incrementAndGet();
+        }
+        LockSupport.unpark(renderer);
+    }
+
+    private void renderLoop() {
+        while (running || mailbox.get() != null) {
+            Frame frame = mailbox.getAndSet(null);
+            if (frame == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                delegate.updateDisplay(frame.line1, frame.line2);
+                framesRendered.incrementAndGet();
+            } catch (RuntimeException e) {
+                framesDropped.incrementAndGet();
+                Log.warn("Display error: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the renderer after it draws the last pending frame.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(renderer);
+        try {
+            renderer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getFramesSubmitted() {
+        return framesSubmitted.get();
+    }
+
+    public long getFramesRendered() {
+        return framesRendered.get();
+    }
+
+    public long getFramesCoalesced() {
+        return framesCoalesced.get();
+    }
+
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    public long getFramesUnchanged() {
+        return framesUnchanged.get();
+    }
+
+    private static final class Frame {
+        final String line1;
+        final String line2;
+
+        Frame(String line1, String line2) {
+            this.line1 = line1;
+            this.line2 = line2;
+        }
+    }
+}
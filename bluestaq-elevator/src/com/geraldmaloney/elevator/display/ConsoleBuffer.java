@@ -0,0 +1,78 @@
+package com.geraldmaloney.elevator.display;
+
+import com.geraldmaloney.elevator.log.Log;
+
+/**
+ * Reusable text buffer for console output written every tick.
+ * Building the status screen with string concatenation allocates on every call; this appends into a
+ * char array it keeps and hands the finished lines to the log as one INFO message - no garbage however
+ * often the status is printed.
+ */
+public class ConsoleBuffer implements CharSequence {
+
+    private char[] chars = new char[256];
+    private int length;
+
+    public ConsoleBuffer append(String text) {
+        int count = text.length();
+        ensureCapacity(length + count);
+        text.getChars(0, count, chars, length);
+        length += count;
+        return this;
+    }
+
+    /**
+     * Ends the current line.
+     */
+    public ConsoleBuffer newLine() {
+        ensureCapacity(length + 1);
+        chars[length++] = '\n';
+        return this;
+    }
+
+    /**
+     * Appends a whole line.
+     */
+    public ConsoleBuffer line(String text) {
+        return append(text).newLine();
+    }
+
+    /**
+     * Logs everything buffered as one INFO message (without the final line break) and empties the buffer.
+     */
+    public void flush() {
+        if (length > 0 && chars[length - 1] == '\n') {
+            length--;
+        }
+        Log.info(this);
+        length = 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > chars.length) {
+            char[] grown = new char[Math.max(needed, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+}
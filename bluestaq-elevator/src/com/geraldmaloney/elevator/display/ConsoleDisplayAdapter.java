@@ -1,5 +1,7 @@
 package com.geraldmaloney.elevator.display;
 
+import com.geraldmaloney.elevator.log.Log;
+
 /**
  * Console-based implementation of DisplayAdapter.
  * Used during development before integrating physical LCD.
@@ -8,9 +10,6 @@ public class ConsoleDisplayAdapter implements DisplayAdapter {
 
     @Override
     public void updateDisplay(String line1, String line2) {
-        System.out.println("[LCD Display]");
-        System.out.println("Line 1: " + line1);
-        System.out.println("Line 2: " + line2);
-        System.out.println("-------------------------");
+        Log.info("[LCD Display]\nLine 1: " + line1 + "\nLine 2: " + line2 + "\n-------------------------");
     }
 }
@@ -3,19 +3,64 @@ package com.geraldmaloney.elevator.display;
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.digital.*;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Controls a 16x2 LCD display using GPIO pins through Pi4J.
  * This class writes characters, clears the display, and positions the cursor.
  */
 public class LCDController {
 
+    public static final int ROWS = 2;
+    public static final int COLS = 16;
+    // Pin writes per byte sent: RS + 2 nibbles x (4 data pins + enable high + enable low)
+    public static final int PIN_WRITES_PER_BYTE = 1 + 2 * (4 + 2);
+
+    // HD44780 datasheet timings, with a little margin
+    private static final long ENABLE_PULSE_NANOS = 500;             // PW_EH min 450 ns
+    private static final long COMMAND_EXEC_NANOS = 40_000;          // Most commands and data writes: 37 us
+    private static final long CLEAR_EXEC_NANOS = 1_600_000;         // Clear display / return home: 1.52 ms
+    private static final long BUSY_FLAG_TIMEOUT_NANOS = 2_000_000;  // Give up polling and fall back to the fixed wait
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;       // Shorter waits spin - parkNanos overshoots by ~50 us
+
     private final DigitalOutput rs, e, d4, d5, d6, d7;
+    private final LcdTimingMode timingMode;
+    private final DigitalOutput rw;         // R/W pin, only used in BUSY_FLAG mode (null otherwise)
+    private final DigitalInput busy;        // Input wired to LCD D7 for busy flag reads (null otherwise)
+    private boolean initialized = false;    // Busy flag can't be read until 4-bit mode is set up
 
     /**
      * Constructor — maps each GPIO pin to a named LCD control pin.
+     * Uses the original millisecond timing, with R/W tied to ground.
      * @param pi4j the Pi4J Context used to create and manage GPIO pins
      */
     public LCDController(Context pi4j) {
+        this(pi4j, LcdTimingMode.LEGACY);
+    }
+
+    /**
+     * @param pi4j the Pi4J Context used to create and manage GPIO pins
+     * @param timingMode LEGACY or PRECISE (BUSY_FLAG needs the pin numbers - use the other constructor)
+     */
+    public LCDController(Context pi4j, LcdTimingMode timingMode) {
+        this(pi4j, timingMode, -1, -1);
+    }
+
+    /**
+     * @param pi4j the Pi4J Context used to create and manage GPIO pins
+     * @param timingMode how to wait for the LCD between writes
+     * @param rwPin BCM pin wired to LCD R/W (BUSY_FLAG mode only, -1 if R/W is tied to ground)
+     * @param busyPin BCM input pin reading LCD D7 (BUSY_FLAG mode only). Pi4J pins can't switch direction,
+     *                so D7 must be fed from its output through a series resistor (~1k) and this input must read
+     *                the LCD side through a 5V-to-3.3V divider.
+     */
+    public LCDController(Context pi4j, LcdTimingMode timingMode, int rwPin, int busyPin) {
+        if (timingMode == LcdTimingMode.BUSY_FLAG && (rwPin < 0 || busyPin < 0)) {
+            throw new IllegalArgumentException("BUSY_FLAG timing needs both an R/W pin and a busy flag input pin.");
+        }
+        this.timingMode = timingMode;
+        this.rw = timingMode == LcdTimingMode.BUSY_FLAG ? createOut(pi4j, rwPin, "LCD_RW") : null;
+        this.busy = timingMode == LcdTimingMode.BUSY_FLAG ? createIn(pi4j, busyPin, "LCD_BUSY") : null;
         this.rs = createOut(pi4j, 26, "LCD_RS");
         this.e  = createOut(pi4j, 19, "LCD_E");
         this.d4 = createOut(pi4j, 13, "LCD_D4");
@@ -41,12 +86,34 @@ public class LCDController {
         return pi4j.create(config);
     }
 
+    /**
+     * Helper method to create the busy flag input pin.
+     */
+    private DigitalInput createIn(Context pi4j, int bcm, String id) {
+        var config = DigitalInput.newConfigBuilder(pi4j)
+                .id(id)
+                .name(id)
+                .address(bcm)
+                .pull(PullResistance.PULL_DOWN)
+                .build();
+
+        return pi4j.create(config);
+    }
+
     /**
      * Clears the LCD display and resets the cursor.
      */
     public void clear() {
         command(0x01); // LCD clear display command
-        sleep(2);      // Give time for command to complete
+        if (timingMode == LcdTimingMode.LEGACY) {
+            sleep(2);      // Give time for command to complete
+        } else {
+            waitUntilReady(CLEAR_EXEC_NANOS);
+        }
+    }
+
+    public LcdTimingMode getTimingMode() {
+        return timingMode;
     }
 
     /**
@@ -58,6 +125,13 @@ public class LCDController {
         }
     }
 
+    /**
+     * Prints a single character at the current cursor position. The cursor then moves one to the right.
+     */
+    public void print(char c) {
+        writeChar(c);
+    }
+
     /**
      * Positions the LCD cursor.
      * @param row Line number (0 = top line, 1 = bottom line)
@@ -83,6 +157,7 @@ public class LCDController {
         command(0x28); // Function Set: 2 line, 5x8 dots, 4-bit
         command(0x0C); // Display ON, Cursor OFF, Blink OFF
         command(0x06); // Entry Mode: move right, no display shift
+        initialized = true;
         clear();       // Clear the screen
     }
 
@@ -109,6 +184,9 @@ public class LCDController {
         rs.state(mode ? DigitalState.HIGH : DigitalState.LOW);
         write4Bits(data >> 4);      // Send high nibble
         write4Bits(data & 0x0F);    // Send low nibble
+        if (timingMode != LcdTimingMode.LEGACY) {
+            waitUntilReady(COMMAND_EXEC_NANOS);
+        }
     }
 
     /**
@@ -127,8 +205,67 @@ public class LCDController {
      */
     private void pulseEnable() {
         e.state(DigitalState.HIGH);
-        sleep(1);
-        e.state(DigitalState.LOW);
+        if (timingMode == LcdTimingMode.LEGACY) {
+            sleep(1);
+            e.state(DigitalState.LOW);
+        } else {
+            delayNanos(ENABLE_PULSE_NANOS);
+            e.state(DigitalState.LOW);
+            delayNanos(ENABLE_PULSE_NANOS);     // Enable cycle time is 1 us min, so hold low as long again
+        }
+    }
+
+    /**
+     * Waits until the LCD has finished the last command.
+     * BUSY_FLAG mode polls the flag (falling back to the fixed wait if it never clears); PRECISE mode waits the datasheet time.
+     */
+    private void waitUntilReady(long execNanos) {
+        if (timingMode == LcdTimingMode.BUSY_FLAG && initialized) {
+            if (pollBusyFlag()) {
+                return;
+            }
+        }
+        delayNanos(execNanos);
+    }
+
+    /**
+     * Reads the busy flag (D7 during the high nibble of a status read) until it clears.
+     * @return true once the LCD reports ready, false on timeout
+     */
+    private boolean pollBusyFlag() {
+        rs.state(DigitalState.LOW);
+        rw.state(DigitalState.HIGH);            // Status read
+        long deadline = System.nanoTime() + BUSY_FLAG_TIMEOUT_NANOS;
+        boolean ready = false;
+        try {
+            while (!ready && System.nanoTime() - deadline < 0) {
+                e.state(DigitalState.HIGH);
+                delayNanos(ENABLE_PULSE_NANOS);     // Data valid 360 ns after E rises
+                ready = busy.state() == DigitalState.LOW;
+                e.state(DigitalState.LOW);
+                delayNanos(ENABLE_PULSE_NANOS);
+                e.state(DigitalState.HIGH);         // Clock out the low nibble (address counter) - not needed
+                delayNanos(ENABLE_PULSE_NANOS);
+                e.state(DigitalState.LOW);
+                delayNanos(ENABLE_PULSE_NANOS);
+            }
+        } finally {
+            rw.state(DigitalState.LOW);         // Back to write mode
+        }
+        return ready;
+    }
+
+    /**
+     * Sub-millisecond delay. Long waits park the thread; short ones spin on nanoTime since parkNanos can't wake that precisely.
+     */
+    private static void delayNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        if (nanos >= SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(nanos - SPIN_THRESHOLD_NANOS / 2);
+        }
+        while (System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
     }
 
     /**
@@ -2,28 +2,110 @@ package com.geraldmaloney.elevator.display;
 
 import com.geraldmaloney.elevator.display.LCDController;
 import com.pi4j.Pi4J;
-import com.pi4j.context.Context;
 
+/**
+ * DisplayAdapter for the 16x2 LCD.
+ * Keeps a shadow copy of what is on the glass and only sends the characters that changed (plus a cursor
+ * move in front of each changed run), so an unchanged status costs no GPIO time and the screen never flickers.
+ */
 public class LcdDisplayAdapter implements DisplayAdapter {
 
+    // A full redraw is clear + two cursor moves + every character
+    private static final int FULL_REDRAW_BYTES = 1 + LCDController.ROWS + LCDController.ROWS * LCDController.COLS;
+
     private final LCDController lcd;
+    private final char[][] shadow = new char[LCDController.ROWS][LCDController.COLS];   // What the LCD is showing now
+    private final char[][] frame = new char[LCDController.ROWS][LCDController.COLS];    // What it should show next
+    private boolean shadowValid = false;    // False until the first frame has been written in full
+
+    // Written only by the thread drawing frames; volatile so metrics scrapes on other threads see fresh counts
+    private volatile long bytesSaved = 0;           // Bytes not sent compared to a full redraw every update
+    private volatile long framesSkipped = 0;        // Updates that matched the screen exactly
 
     public LcdDisplayAdapter() {
-        Context pi4j = Pi4J.newAutoContext();
-        this.lcd = new LCDController(pi4j);
+        this(new LCDController(Pi4J.newAutoContext()));
+    }
+
+    public LcdDisplayAdapter(LcdTimingMode timingMode) {
+        this(new LCDController(Pi4J.newAutoContext(), timingMode));
+    }
+
+    public LcdDisplayAdapter(LCDController lcd) {
+        this.lcd = lcd;
     }
 
     @Override
     public void updateDisplay(String line1, String line2) {
-        lcd.clear();
-        lcd.setCursor(0,0);
-        lcd.print(pad(line1));
-        lcd.setCursor(1,0);   // Line 2
-        lcd.print(pad(line2));
+        fill(frame[0], line1);
+        fill(frame[1], line2);
+
+        if (!shadowValid) {
+            lcd.clear();
+            for (int row = 0; row < LCDController.ROWS; row++) {
+                lcd.setCursor(row, 0);
+                for (int col = 0; col < LCDController.COLS; col++) {
+                    lcd.print(frame[row][col]);
+                    shadow[row][col] = frame[row][col];
+                }
+            }
+            shadowValid = true;
+            return;
+        }
+
+        int bytesSent = 0;
+        for (int row = 0; row < LCDController.ROWS; row++) {
+            int cursorCol = -1;             // Where the LCD cursor sits on this row, -1 if unknown
+            for (int col = 0; col < LCDController.COLS; col++) {
+                char c = frame[row][col];
+                if (shadow[row][col] == c) {
+                    continue;
+                }
+                if (cursorCol != col) {
+                    lcd.setCursor(row, col);
+                    bytesSent++;
+                }
+                lcd.print(c);
+                bytesSent++;
+                shadow[row][col] = c;
+                cursorCol = col + 1;        // LCD auto-increments after each character
+            }
+        }
+
+        if (bytesSent == 0) {
+            framesSkipped++;
+        }
+        bytesSaved += FULL_REDRAW_BYTES - bytesSent;
+    }
+
+    /**
+     * @return GPIO pin writes avoided compared to clearing and rewriting the whole screen on every update
+     */
+    public long getGpioWritesSaved() {
+        return bytesSaved * LCDController.PIN_WRITES_PER_BYTE;
+    }
+
+    /**
+     * @return number of updates that were skipped entirely because nothing changed
+     */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+
+    /**
+     * Forces the next update to clear and redraw the whole screen (e.g. after the LCD was power cycled).
+     */
+    public void invalidate() {
+        shadowValid = false;
     }
-    
-    private String pad(String line) {
-        return String.format("%-16s", line.length() > 16 ? line.substring(0,16) : line);
+
+    /**
+     * Copies a line into a row buffer, truncated or space-padded to the display width.
+     */
+    private static void fill(char[] row, String line) {
+        int length = Math.min(line.length(), row.length);
+        line.getChars(0, length, row, 0);
+        for (int col = length; col < row.length; col++) {
+            row[col] = ' ';
+        }
     }
-    
 }
@@ -0,0 +1,10 @@
+package com.geraldmaloney.elevator.display;
+
+/**
+ * How LCDController waits for the HD44780 between writes.
+ */
+public enum LcdTimingMode {
+    LEGACY,         // Original millisecond sleeps: 1 ms per enable pulse, 2 ms after clear. ~70 ms per full screen.
+    PRECISE,        // Datasheet timings: ~450 ns enable pulse, ~37 us per command, ~1.52 ms for clear. A few ms per screen.
+    BUSY_FLAG       // Reads the LCD busy flag over the R/W pin and moves on as soon as the LCD is ready.
+}
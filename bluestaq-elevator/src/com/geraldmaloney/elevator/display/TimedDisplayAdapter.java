@@ -0,0 +1,25 @@
+package com.geraldmaloney.elevator.display;
+
+import com.geraldmaloney.elevator.metrics.Histogram;
+
+/**
+ * Decorator that records how long each frame takes to draw.
+ * Wrap the real display (inside AsyncDisplayAdapter) to measure GPIO time rather than the mailbox hand-off.
+ */
+public class TimedDisplayAdapter implements DisplayAdapter {
+
+    private final DisplayAdapter delegate;
+    private final Histogram updateTime;
+
+    public TimedDisplayAdapter(DisplayAdapter delegate, Histogram updateTime) {
+        this.delegate = delegate;
+        this.updateTime = updateTime;
+    }
+
+    @Override
+    public void updateDisplay(String line1, String line2) {
+        long started = System.nanoTime();
+        delegate.updateDisplay(line1, line2);
+        updateTime.recordSince(started);
+    }
+}
@@ -0,0 +1,169 @@
+package com.geraldmaloney.elevator.event;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.log.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary event log written through a memory-mapped file.
+ * Appending an event is a handful of stores into mapped memory - no formatting, no system call -
+ * so it is cheap enough to leave on in the field. The OS writes the pages back in the background.
+ *
+ * File layout: a 16 byte header (magic, version, record size, reserved) followed by fixed 16 byte records:
+ *   long timeMs | byte type code | byte car id | short floor | int value
+ * The file grows one region at a time. Unused space at the end of a region is zero-filled, and
+ * a record with type code 0 marks the end of the log. close() trims the file to the last record.
+ * With a size cap, a full log is renamed to <file>.1 (replacing the previous one) and a fresh log started,
+ * so the newest events are always kept and the two files together never pass twice the cap.
+ */
+public class BinaryEventLog implements Closeable {
+
+    public static final int MAGIC = 0x454C5631;                 // "ELV1"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 16;
+    static final long REGION_BYTES = 1 << 20;                   // Mapped 1 MiB (65536 events) at a time
+    public static final String PROPERTY = "elevator.events.file";
+    public static final String MAX_MB_PROPERTY = "elevator.events.max.mb";
+    public static final long DEFAULT_MAX_MB = 64;
+
+    private final Path file;
+    private final long maxBytes;            // Rotate once the log would grow past this
+    private FileChannel channel;
+    private MappedByteBuffer region;        // Region currently being appended to
+    private long regionStart;               // File offset of the region
+    private long appendOffset;              // File offset of the next record
+    private long eventCount;                // Events appended by this instance
+    private boolean failed = false;         // Rotation failed - stop logging, keep the elevator running
+
+    /**
+     * Opens the log with no size cap, creating it if needed. An existing log is appended to after its last record.
+     */
+    public BinaryEventLog(Path file) throws IOException {
+        this(file, Long.MAX_VALUE);
+    }
+
+    /**
+     * Opens the log, rotating it whenever it would grow past maxBytes.
+     */
+    public BinaryEventLog(Path file, long maxBytes) throws IOException {
+        if (maxBytes < HEADER_BYTES + REGION_BYTES) {
+            throw new IllegalArgumentException("Event log cap must be at least " + (HEADER_BYTES + REGION_BYTES) + " bytes.");
+        }
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            startLog();
+        } else {
+            EventLogReader.checkHeader(channel);
+            appendOffset = EventLogReader.findEnd(channel);
+            mapRegion(appendOffset);
+        }
+    }
+
+    /**
+     * Logs every event from this car under the given car id (0-255).
+     */
+    public void attach(AbstractElevator car, int carId) {
+        if (carId < 0 || carId > 255) {
+            throw new IllegalArgumentException("Car id " + carId + " does not fit in the log (0-255).");
+        }
+        car.addEventListener((elevator, timeMs, type, floor, value) -> append(timeMs, carId, type, floor, value));
+    }
+
+    /**
+     * Appends one record. Safe to call from several cars' threads.
+     */
+    public synchronized void append(long timeMs, int carId, ElevatorEventType type, int floor, int value) {
+        if (failed) {
+            return;
+        }
+        if (appendOffset + RECORD_BYTES > maxBytes) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                failed = true;
+                Log.warn("Event log stopped: could not rotate " + file + ": " + e.getMessage());
+                return;
+            }
+        }
+        if (appendOffset + RECORD_BYTES > regionStart + REGION_BYTES) {
+            try {
+                mapRegion(appendOffset);
+            } catch (IOException e) {
+                Log.warn("Event log full or unwritable: " + e.getMessage());
+                return;
+            }
+        }
+        int position = (int) (appendOffset - regionStart);
+        region.putLong(position, timeMs);
+        region.put(position + 8, (byte) type.getCode());
+        region.put(position + 9, (byte) carId);
+        region.putShort(position + 10, (short) floor);
+        region.putInt(position + 12, value);
+        appendOffset += RECORD_BYTES;
+        eventCount++;
+    }
+
+    /**
+     * @return number of events appended since this log was opened
+     */
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Forces mapped pages to disk. Normally left to the OS; call before a planned power-off.
+     */
+    public synchronized void flush() {
+        region.force();
+    }
+
+    /**
+     * Flushes, trims the zero-filled tail and closes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        region.force();
+        channel.truncate(appendOffset);
+        channel.close();
+    }
+
+    /**
+     * Writes the header of an empty log.
+     */
+    private void startLog() throws IOException {
+        mapRegion(0);
+        region.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(0);
+        appendOffset = HEADER_BYTES;
+    }
+
+    /**
+     * Closes the full log as <file>.1 and starts an empty one in its place.
+     */
+    private void rotate() throws IOException {
+        region.force();
+        channel.truncate(appendOffset);
+        channel.close();
+        Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        startLog();
+    }
+
+    /**
+     * Maps the next region. Offsets are always record boundaries, so a record never straddles two mappings.
+     */
+    private void mapRegion(long offset) throws IOException {
+        regionStart = offset;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, REGION_BYTES);
+    }
+}
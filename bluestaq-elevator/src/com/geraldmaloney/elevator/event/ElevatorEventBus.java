@@ -0,0 +1,47 @@
+package com.geraldmaloney.elevator.event;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+
+import java.util.Arrays;
+
+/**
+ * Fans typed events from one elevator out to every registered listener.
+ * Listeners live in a copy-on-write array, so they can be added from another thread
+ * (e.g. a monitoring tool) while the car is running, and publishing never allocates.
+ */
+public class ElevatorEventBus {
+
+    private final AbstractElevator source;
+    private volatile ElevatorEventListener[] listeners = new ElevatorEventListener[0];
+
+    public ElevatorEventBus(AbstractElevator source) {
+        this.source = source;
+    }
+
+    public synchronized void addListener(ElevatorEventListener listener) {
+        ElevatorEventListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    public synchronized void removeListener(ElevatorEventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                ElevatorEventListener[] updated = new ElevatorEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, listeners.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delivers an event to every listener, in registration order.
+     */
+    public void publish(long timeMs, ElevatorEventType type, int floor, int value) {
+        for (ElevatorEventListener listener : listeners) {
+            listener.onEvent(source, timeMs, type, floor, value);
+        }
+    }
+}
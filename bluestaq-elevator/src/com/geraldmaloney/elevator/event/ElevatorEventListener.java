@@ -0,0 +1,18 @@
+package com.geraldmaloney.elevator.event;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+
+/**
+ * Receives typed state changes from an elevator.
+ * Event fields are passed as primitives so publishing an event never allocates.
+ */
+public interface ElevatorEventListener {
+    /**
+     * @param elevator the car the event came from
+     * @param timeMs elevator clock time of the event
+     * @param type what happened
+     * @param floor floor the car was on (or the floor that was requested for calls)
+     * @param value type-specific detail - see ElevatorEventType
+     */
+    void onEvent(AbstractElevator elevator, long timeMs, ElevatorEventType type, int floor, int value);
+}
@@ -0,0 +1,41 @@
+package com.geraldmaloney.elevator.event;
+
+/**
+ * Kinds of state change an elevator publishes. The code is what gets written to the binary event log,
+ * so existing codes must never be renumbered.
+ */
+public enum ElevatorEventType {
+    FLOOR_CHANGED(1),           // Car moved to a new floor. Value = floor it came from
+    DIRECTION_CHANGED(2),       // Car started, stopped or reversed. Value = ElevatorStatus ordinal
+    ARRIVED(3),                 // Car stopped to serve a request. Value unused
+    DOOR_CHANGED(4),            // Door opened, closed or locked. Value = DoorStatus ordinal
+    RUN_MODE_CHANGED(5),        // Emergency mode entered or left. Value = ElevatorRunMode ordinal
+    CAR_CALL(6),                // Floor button pressed inside the car. Value unused
+    HALL_CALL(7),               // Up/Down pressed on a landing. Value = HallCallDirection ordinal
+    DOOR_MOVING(8);             // Door started opening or closing. Value = DoorStatus ordinal it is heading to
+
+    private static final ElevatorEventType[] BY_CODE = new ElevatorEventType[9];
+
+    static {
+        for (ElevatorEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final int code;
+
+    ElevatorEventType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the event type for a log code, or null if the code is unknown (or 0, the end-of-log marker)
+     */
+    public static ElevatorEventType fromCode(int code) {
+        return (code > 0 && code < BY_CODE.length) ? BY_CODE[code] : null;
+    }
+}
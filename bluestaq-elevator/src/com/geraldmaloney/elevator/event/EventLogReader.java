@@ -0,0 +1,146 @@
+package com.geraldmaloney.elevator.event;
+
+import com.geraldmaloney.elevator.DoorStatus;
+import com.geraldmaloney.elevator.ElevatorRunMode;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.HallCallDirection;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scans a BinaryEventLog for post-incident analysis. The file is mapped read-only in large chunks
+ * and records are decoded straight out of the mapping, so millions of events scan in milliseconds.
+ *
+ * Usage: EventLogReader <log file> [--dump]
+ */
+public class EventLogReader {
+
+    static final long CHUNK_BYTES = 64L * 1024 * 1024;     // Mapped 64 MiB at a time (a multiple of the record size)
+
+    /**
+     * Receives each decoded record. Fields are primitives so a scan doesn't allocate per event.
+     */
+    public interface EventVisitor {
+        void visit(long timeMs, int carId, ElevatorEventType type, int floor, int value);
+    }
+
+    private final Path file;
+
+    public EventLogReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Visits every record in file order.
+     * @return number of records visited
+     */
+    public long scan(EventVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            checkHeader(channel);
+            long size = channel.size();
+            long count = 0;
+            for (long chunkStart = BinaryEventLog.HEADER_BYTES; chunkStart < size; chunkStart += CHUNK_BYTES) {
+                long length = Math.min(CHUNK_BYTES, size - chunkStart);
+                length -= length % BinaryEventLog.RECORD_BYTES;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, length);
+                for (int position = 0; position < length; position += BinaryEventLog.RECORD_BYTES) {
+                    ElevatorEventType type = ElevatorEventType.fromCode(chunk.get(position + 8));
+                    if (type == null) {
+                        return count;                   // Zero-filled tail - end of log
+                    }
+                    visitor.visit(chunk.getLong(position), chunk.get(position + 9) & 0xFF, type,
+                            chunk.getShort(position + 10), chunk.getInt(position + 12));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Throws if the file does not start with a BinaryEventLog header this version can read.
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        if (channel.size() < BinaryEventLog.HEADER_BYTES) {
+            throw new IOException("Not an elevator event log: file is too short.");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryEventLog.HEADER_BYTES);
+        if (header.getInt(0) != BinaryEventLog.MAGIC) {
+            throw new IOException("Not an elevator event log: bad magic number.");
+        }
+        if (header.getInt(4) != BinaryEventLog.VERSION || header.getInt(8) != BinaryEventLog.RECORD_BYTES) {
+            throw new IOException("Unsupported event log version " + header.getInt(4) + ".");
+        }
+    }
+
+    /**
+     * Finds the file offset just past the last record. Only the last mapped region can have
+     * a zero-filled tail (the writer crashed or was killed before close()), so only that region is scanned.
+     */
+    static long findEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long start = BinaryEventLog.HEADER_BYTES;
+        if (size - BinaryEventLog.REGION_BYTES > start) {
+            start = size - BinaryEventLog.REGION_BYTES;
+            start -= (start - BinaryEventLog.HEADER_BYTES) % BinaryEventLog.RECORD_BYTES;
+        }
+        long length = size - start;
+        length -= length % BinaryEventLog.RECORD_BYTES;
+        MappedByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        for (int position = 0; position < length; position += BinaryEventLog.RECORD_BYTES) {
+            if (tail.get(position + 8) == 0) {
+                return start + position;
+            }
+        }
+        return start + length;
+    }
+
+    /**
+     * @return human-readable meaning of a record's value field
+     */
+    public static String describeValue(ElevatorEventType type, int value) {
+        return switch (type) {
+            case FLOOR_CHANGED -> "from " + value;
+            case DIRECTION_CHANGED -> ElevatorStatus.values()[value].getLabel();
+            case DOOR_CHANGED -> DoorStatus.values()[value].toString();
+            case DOOR_MOVING -> "to " + DoorStatus.values()[value];
+            case RUN_MODE_CHANGED -> ElevatorRunMode.values()[value].toString();
+            case HALL_CALL -> HallCallDirection.values()[value].toString();
+            case ARRIVED, CAR_CALL -> "";
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: EventLogReader <log file> [--dump]");
+            return;
+        }
+        EventLogReader reader = new EventLogReader(Path.of(args[0]));
+        boolean dump = args.length > 1 && args[1].equals("--dump");
+
+        long[] countsByType = new long[ElevatorEventType.values().length];
+        long[] span = {Long.MAX_VALUE, Long.MIN_VALUE};
+        long started = System.nanoTime();
+        long total = reader.scan((timeMs, carId, type, floor, value) -> {
+            countsByType[type.ordinal()]++;
+            span[0] = Math.min(span[0], timeMs);
+            span[1] = Math.max(span[1], timeMs);
+            if (dump) {
+                System.out.printf("%d car %d %-17s floor %3d %s%n", timeMs, carId, type, floor, describeValue(type, value));
+            }
+        });
+        double scanMs = (System.nanoTime() - started) / 1_000_000.0;
+
+        System.out.printf("%d events in %.1f ms (%.1f M events/s)%n", total, scanMs, total / scanMs / 1000.0);
+        if (total > 0) {
+            System.out.printf("Time span: %d .. %d ms (%.1f s)%n", span[0], span[1], (span[1] - span[0]) / 1000.0);
+        }
+        for (ElevatorEventType type : ElevatorEventType.values()) {
+            System.out.printf("  %-17s %d%n", type, countsByType[type.ordinal()]);
+        }
+    }
+}
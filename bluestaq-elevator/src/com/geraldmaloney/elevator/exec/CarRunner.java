@@ -0,0 +1,90 @@
+package com.geraldmaloney.elevator.exec;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.clock.FixedRateTickEngine;
+import com.geraldmaloney.elevator.input.InputProvider;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * One car's control loop on its own thread: the same fixed-rate tick as Main (move, then act on input),
+ * driven by the car's own clock. Give every car its own clock - scheduled door and travel steps only run
+ * on the thread that sleeps on that clock.
+ */
+public class CarRunner implements Runnable {
+
+    private final AbstractElevator car;
+    private final InputProvider input;
+    private final FixedRateTickEngine engine;
+    private volatile long startDelayMs;
+    private volatile Thread thread;
+
+    public CarRunner(AbstractElevator car, InputProvider input, long tickMs) {
+        this.car = car;
+        this.input = input;
+        this.engine = new FixedRateTickEngine(car.getClock(), tickMs);
+    }
+
+    /**
+     * Delays the first tick, so a fleet started together doesn't wake up in lock step every period.
+     */
+    public void setStartDelayMs(long startDelayMs) {
+        this.startDelayMs = startDelayMs;
+    }
+
+    public FixedRateTickEngine getEngine() {
+        return engine;
+    }
+
+    public AbstractElevator getCar() {
+        return car;
+    }
+
+    /**
+     * Starts the loop on a thread from the given factory (see CarThreads).
+     */
+    public Thread start(ThreadFactory threads) {
+        Thread started = threads.newThread(this);
+        thread = started;
+        started.start();
+        return started;
+    }
+
+    @Override
+    public void run() {
+        if (startDelayMs > 0) {
+            car.getClock().sleep(startDelayMs);
+        }
+        engine.run(this::tick);
+    }
+
+    private void tick() {
+        car.goToNextFloor();
+
+        String next;
+        while ((next = input.getNextInput()) != null) {
+            car.handleInput(next);
+        }
+    }
+
+    /**
+     * Stops the loop after the current tick and wakes it if it is waiting for the next one.
+     */
+    public void stop() {
+        engine.stop();
+        Thread running = thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * Waits for the loop to finish after stop().
+     */
+    public void join() throws InterruptedException {
+        Thread running = thread;
+        if (running != null) {
+            running.join();
+        }
+    }
+}
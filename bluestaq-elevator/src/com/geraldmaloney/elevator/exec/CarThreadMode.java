@@ -0,0 +1,9 @@
+package com.geraldmaloney.elevator.exec;
+
+/**
+ * What kind of thread each car's control loop runs on.
+ */
+public enum CarThreadMode {
+    PLATFORM,       // One OS thread per car - fine for a building, runs out of memory around a city
+    VIRTUAL         // One Java 21 virtual thread per car - sleeping cars cost a few hundred bytes of heap
+}
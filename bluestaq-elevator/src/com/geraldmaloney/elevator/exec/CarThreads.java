@@ -0,0 +1,81 @@
+package com.geraldmaloney.elevator.exec;
+
+import com.geraldmaloney.elevator.log.Log;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread factories for car control loops.
+ * Virtual threads are looked up reflectively, so the controller still builds and runs on Java 17 (the Pi image);
+ * on 21+ each car gets a virtual thread and every clock sleep, door wait or display park just unmounts it
+ * from its carrier instead of holding an OS thread.
+ */
+public final class CarThreads {
+
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;   // Car loops are shallow - keep thousands of stacks small
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method BUILDER_NAME = findMethod(builderClass(), "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = findMethod(builderClass(), "factory");
+
+    private CarThreads() {
+    }
+
+    /**
+     * @return true if this JVM can start virtual threads (Java 21+)
+     */
+    public static boolean isVirtualSupported() {
+        return OF_VIRTUAL != null && BUILDER_NAME != null && BUILDER_FACTORY != null;
+    }
+
+    /**
+     * @return the mode newFactory will really use - VIRTUAL falls back to PLATFORM on older JVMs
+     */
+    public static CarThreadMode effectiveMode(CarThreadMode requested) {
+        return (requested == CarThreadMode.VIRTUAL && isVirtualSupported()) ? CarThreadMode.VIRTUAL : CarThreadMode.PLATFORM;
+    }
+
+    /**
+     * Creates a factory whose threads are named namePrefix0, namePrefix1, ...
+     * Platform threads are daemons with a small stack; virtual threads are always daemons.
+     */
+    public static ThreadFactory newFactory(CarThreadMode mode, String namePrefix) {
+        if (effectiveMode(mode) == CarThreadMode.VIRTUAL) {
+            try {
+                Object builder = OF_VIRTUAL.invoke(null);
+                builder = BUILDER_NAME.invoke(builder, namePrefix, 0L);
+                return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                Log.warn("Virtual threads unavailable (" + e + "), using platform threads.");
+            }
+        }
+
+        AtomicLong nextId = new AtomicLong();
+        return task -> {
+            Thread thread = new Thread(null, task, namePrefix + nextId.getAndIncrement(), PLATFORM_STACK_BYTES);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Class<?> builderClass() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;                // Java 17 - no thread builders
+        }
+    }
+
+    private static Method findMethod(Class<?> owner, String name, Class<?>... parameterTypes) {
+        if (owner == null) {
+            return null;
+        }
+        try {
+            return owner.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
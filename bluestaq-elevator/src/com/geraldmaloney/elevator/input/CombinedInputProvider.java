@@ -0,0 +1,32 @@
+package com.geraldmaloney.elevator.input;
+
+/**
+ * Takes input from several providers at once, e.g. the keypad in the car and the control socket.
+ * Each call asks the providers in turn, starting after the one that last had input, so a busy
+ * source can't keep the others waiting.
+ */
+public class CombinedInputProvider implements InputProvider {
+
+    private final InputProvider[] providers;
+    private int next = 0;                   // Provider asked first on the next call
+
+    public CombinedInputProvider(InputProvider... providers) {
+        if (providers.length == 0) {
+            throw new IllegalArgumentException("At least one input provider is needed.");
+        }
+        this.providers = providers.clone();
+    }
+
+    @Override
+    public String getNextInput() {
+        for (int i = 0; i < providers.length; i++) {
+            int index = (next + i) % providers.length;
+            String input = providers[index].getNextInput();
+            if (input != null) {
+                next = (index + 1) % providers.length;
+                return input;
+            }
+        }
+        return null;
+    }
+}
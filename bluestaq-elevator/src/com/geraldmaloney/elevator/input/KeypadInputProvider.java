@@ -1,82 +1,104 @@
 package com.geraldmaloney.elevator.input;
 
+import com.geraldmaloney.elevator.log.Log;
 import com.pi4j.Pi4J;
-import com.pi4j.context.Context;
-import com.pi4j.io.gpio.digital.*;
-
-import java.util.*;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the 4x4 membrane keypad. Digits build up a floor number submitted with '#', '*' clears it,
+ * and A-D map to OPEN, CLOSE, BELL and STOP.
+ *
+ * Two modes:
+ *  - Polling (original): getNextInput scans every column and row, and sleeps 250 ms after a hit.
+ *  - Interrupt-driven: all columns are held high and row state-change events decode the key on the GPIO
+ *    event thread, debounce it by timestamp and push it onto a lock-free queue. getNextInput just drains
+ *    that queue, so it never scans or sleeps inside the control loop.
+ */
 public class KeypadInputProvider implements InputProvider {
 
-    private final Context pi4j;
-    private final List<DigitalOutput> colOut;
-    private final List<DigitalInput> rowIn;
-
-    private static final int[] ROWS = {21, 20, 16, 12}; // BCM GPIO
-    private static final int[] COLS = {25, 24, 23, 18}; // BCM GPIO
+    public static final long DEFAULT_DEBOUNCE_MS = 50;
 
     // Key layout - I know it's messed up. I suspect the pin label on the button pad connector is backwards.
-    private static final char[][] KEYS = {
+    static final char[][] KEYS = {
             {'D','C','B','A'},
             {'#','9','6','3'},
             {'0','8','5','2'},
             {'*','7','4','1'}
     };
 
+    private final KeypadMatrix matrix;
+    private final boolean interruptDriven;
+    private final long debounceNanos;
+
     private final StringBuilder inputBuffer = new StringBuilder();
-    private String queuedCommand = null;
+    private final Deque<String> queuedCommands = new ArrayDeque<>();
+
+    // Interrupt mode state - written by the GPIO event thread
+    private final Queue<Character> pendingKeys = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scanning = new AtomicBoolean(false);
+    private final long[] lastRowEdgeNanos = new long[KeypadMatrix.SIZE];    // Last edge seen per row, for debouncing
+    private final long[] ignoreRowUntilNanos = new long[KeypadMatrix.SIZE]; // Edges caused by our own decode scan
 
+    // Original polling keypad on the Pi
     public KeypadInputProvider() {
-        this.pi4j = Pi4J.newAutoContext();
-        this.colOut = new ArrayList<>();
-        this.rowIn = new ArrayList<>();
+        this(false);
+    }
 
-        setupPins();
+    // Keypad on the Pi, optionally interrupt-driven
+    public KeypadInputProvider(boolean interruptDriven) {
+        this(new Pi4jKeypadMatrix(Pi4J.newAutoContext()), interruptDriven, DEFAULT_DEBOUNCE_MS);
     }
 
-    private void setupPins() {
-        // Setup output columns
-        for (int i = 0; i < 4; i++) {
-            var config = DigitalOutput.newConfigBuilder(pi4j)
-                    .id("COL" + i)
-                    .address(COLS[i])
-                    .shutdown(DigitalState.LOW)
-                    .initial(DigitalState.LOW)
-                    .build();
-            colOut.add(pi4j.create(config));
-        }
+    // Keypad on any matrix - e.g. MockKeypadMatrix for off-device runs
+    public KeypadInputProvider(KeypadMatrix matrix, boolean interruptDriven, long debounceMs) {
+        this.matrix = matrix;
+        this.interruptDriven = interruptDriven;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMs);
 
-        // Setup input rows
-        for (int i = 0; i < 4; i++) {
-            var config = DigitalInput.newConfigBuilder(pi4j)
-                    .id("ROW" + i)
-                    .address(ROWS[i])
-                    .pull(PullResistance.PULL_DOWN)
-                    .build();
-            rowIn.add(pi4j.create(config));
+        if (interruptDriven) {
+            long now = System.nanoTime();
+            for (int r = 0; r < KeypadMatrix.SIZE; r++) {
+                lastRowEdgeNanos[r] = now - debounceNanos;
+            }
+            driveAllColumns(true);              // Any key press now raises its row
+            matrix.addRowListener(this::onRowChange);
         }
     }
 
     @Override
     public String getNextInput() {
         //System.out.println("Polling Keypad...");
-        if (queuedCommand != null) {
-            String out = queuedCommand;
-            queuedCommand = null;
-            return out;
+        if (interruptDriven) {
+            Character key;
+            while ((key = pendingKeys.poll()) != null) {
+                handleKeyPress(key);
+            }
+            return queuedCommands.poll();
+        }
+
+        if (!queuedCommands.isEmpty()) {
+            return queuedCommands.poll();
         }
 
         // Scan keypad
-        for (int c = 0; c < 4; c++) {
+        for (int c = 0; c < KeypadMatrix.SIZE; c++) {
             // Activate one column
-            for (int j = 0; j < 4; j++) {
-                colOut.get(j).state(j == c ? DigitalState.HIGH : DigitalState.LOW);
+            for (int j = 0; j < KeypadMatrix.SIZE; j++) {
+                matrix.driveColumn(j, j == c);
             }
 
-            for (int r = 0; r < 4; r++) {
-                if (rowIn.get(r).state() == DigitalState.HIGH) {
+            for (int r = 0; r < KeypadMatrix.SIZE; r++) {
+                if (matrix.readRow(r)) {
                     char key = KEYS[r][c];
-                    System.out.println("DETECTED KEY PRESS: " + key);       //Keypad debug
+                    if (Log.isDebugEnabled()) {
+                        Log.debug("DETECTED KEY PRESS: " + key);    // Keypad debug, -Delevator.log.level=DEBUG
+                    }
                     handleKeyPress(key);
                     sleep(250); // delay
                     return null; // wait for submit key
@@ -87,19 +109,86 @@ public class KeypadInputProvider implements InputProvider {
         return null;
     }
 
+    /**
+     * GPIO event callback (interrupt mode). Accepts a rising edge only when the row has been quiet for the
+     * debounce window, then finds the column by driving one column at a time.
+     */
+    private void onRowChange(int row, boolean high) {
+        if (scanning.get()) {
+            return;                                     // Edge caused by our own column scan
+        }
+        long now = System.nanoTime();
+        synchronized (lastRowEdgeNanos) {
+            if (now - ignoreRowUntilNanos[row] < 0) {
+                return;
+            }
+            boolean settled = now - lastRowEdgeNanos[row] >= debounceNanos;
+            lastRowEdgeNanos[row] = now;
+            if (!high || !settled) {
+                return;                                 // Release, or contact bounce
+            }
+        }
+
+        char key = decodeColumn(row);
+        if (key != 0) {
+            if (Log.isDebugEnabled()) {
+                Log.debug("DETECTED KEY PRESS: " + key);    // Keypad debug, -Delevator.log.level=DEBUG
+            }
+            pendingKeys.offer(key);
+        }
+    }
+
+    /**
+     * Drives each column alone to see which one the pressed key on this row connects to.
+     * @return the key, or 0 if it was released before the scan caught it
+     */
+    private char decodeColumn(int row) {
+        if (!scanning.compareAndSet(false, true)) {
+            return 0;
+        }
+        char key = 0;
+        try {
+            for (int c = 0; c < KeypadMatrix.SIZE && key == 0; c++) {
+                for (int j = 0; j < KeypadMatrix.SIZE; j++) {
+                    matrix.driveColumn(j, j == c);
+                }
+                if (matrix.readRow(row)) {
+                    key = KEYS[row][c];
+                }
+            }
+            driveAllColumns(true);
+        } finally {
+            // Edge events from the scan can arrive late on the GPIO thread - ignore them for one debounce window
+            long ignoreUntil = System.nanoTime() + debounceNanos;
+            synchronized (lastRowEdgeNanos) {
+                for (int r = 0; r < KeypadMatrix.SIZE; r++) {
+                    ignoreRowUntilNanos[r] = ignoreUntil;
+                }
+            }
+            scanning.set(false);
+        }
+        return key;
+    }
+
+    private void driveAllColumns(boolean high) {
+        for (int c = 0; c < KeypadMatrix.SIZE; c++) {
+            matrix.driveColumn(c, high);
+        }
+    }
+
     private void handleKeyPress(char key) {
         switch (key) {
             case '#' -> {
                 if (inputBuffer.length() > 0) {
-                    queuedCommand = inputBuffer.toString();
+                    queuedCommands.add(inputBuffer.toString());
                     inputBuffer.setLength(0);
                 }
             }
             case '*' -> inputBuffer.setLength(0); // Clear
-            case 'A' -> queuedCommand = "OPEN";
-            case 'B' -> queuedCommand = "CLOSE";
-            case 'C' -> queuedCommand = "BELL";
-            case 'D' -> queuedCommand = "STOP";
+            case 'A' -> queuedCommands.add("OPEN");
+            case 'B' -> queuedCommands.add("CLOSE");
+            case 'C' -> queuedCommands.add("BELL");
+            case 'D' -> queuedCommands.add("STOP");
             default -> {
                 if (Character.isDigit(key)) {
                     inputBuffer.append(key);
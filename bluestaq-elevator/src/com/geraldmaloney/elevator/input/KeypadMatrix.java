@@ -0,0 +1,31 @@
+package com.geraldmaloney.elevator.input;
+
+/**
+ * The 4x4 keypad's GPIO wiring: four column outputs driven by us and four row inputs read back.
+ * Split out from KeypadInputProvider so the keypad logic can run against real pins or a mock off-device.
+ */
+public interface KeypadMatrix {
+
+    int SIZE = 4;   // 4 rows x 4 columns
+
+    /**
+     * Drives a column output high or low.
+     */
+    void driveColumn(int col, boolean high);
+
+    /**
+     * @return true if the row input currently reads high
+     */
+    boolean readRow(int row);
+
+    /**
+     * Registers a callback fired whenever a row input changes state.
+     * May be called on a GPIO event thread, not the control loop thread.
+     */
+    void addRowListener(RowListener listener);
+
+    @FunctionalInterface
+    interface RowListener {
+        void onRowChange(int row, boolean high);
+    }
+}
@@ -0,0 +1,87 @@
+package com.geraldmaloney.elevator.input;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Software keypad for running KeypadInputProvider off-device.
+ * A pressed key connects its column to its row, so a row reads high only while a pressed key's column is driven high,
+ * just like the real membrane. Row change events are fired on the caller's thread.
+ */
+public class MockKeypadMatrix implements KeypadMatrix {
+
+    private final boolean[] columnHigh = new boolean[SIZE];
+    private final boolean[][] pressed = new boolean[SIZE][SIZE];
+    private final boolean[] lastRowState = new boolean[SIZE];
+    private final List<RowListener> listeners = new ArrayList<>();
+
+    @Override
+    public synchronized void driveColumn(int col, boolean high) {
+        columnHigh[col] = high;
+        fireRowChanges();
+    }
+
+    @Override
+    public synchronized boolean readRow(int row) {
+        for (int col = 0; col < SIZE; col++) {
+            if (pressed[row][col] && columnHigh[col]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void addRowListener(RowListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Holds a key down.
+     */
+    public synchronized void press(char key) {
+        int[] position = locate(key);
+        pressed[position[0]][position[1]] = true;
+        fireRowChanges();
+    }
+
+    /**
+     * Lets a key go.
+     */
+    public synchronized void release(char key) {
+        int[] position = locate(key);
+        pressed[position[0]][position[1]] = false;
+        fireRowChanges();
+    }
+
+    /**
+     * Presses and releases a key.
+     */
+    public void tap(char key) {
+        press(key);
+        release(key);
+    }
+
+    private void fireRowChanges() {
+        for (int row = 0; row < SIZE; row++) {
+            boolean high = readRow(row);
+            if (high != lastRowState[row]) {
+                lastRowState[row] = high;
+                for (RowListener listener : listeners) {
+                    listener.onRowChange(row, high);
+                }
+            }
+        }
+    }
+
+    private static int[] locate(char key) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                if (KeypadInputProvider.KEYS[row][col] == key) {
+                    return new int[]{row, col};
+                }
+            }
+        }
+        throw new IllegalArgumentException("No such key on the keypad: " + key);
+    }
+}
@@ -0,0 +1,61 @@
+package com.geraldmaloney.elevator.input;
+
+import com.pi4j.context.Context;
+import com.pi4j.io.gpio.digital.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keypad matrix on the Raspberry Pi GPIO header through Pi4J.
+ */
+public class Pi4jKeypadMatrix implements KeypadMatrix {
+
+    private static final int[] ROWS = {21, 20, 16, 12}; // BCM GPIO
+    private static final int[] COLS = {25, 24, 23, 18}; // BCM GPIO
+
+    private final List<DigitalOutput> colOut = new ArrayList<>();
+    private final List<DigitalInput> rowIn = new ArrayList<>();
+
+    public Pi4jKeypadMatrix(Context pi4j) {
+        // Setup output columns
+        for (int i = 0; i < SIZE; i++) {
+            var config = DigitalOutput.newConfigBuilder(pi4j)
+                    .id("COL" + i)
+                    .address(COLS[i])
+                    .shutdown(DigitalState.LOW)
+                    .initial(DigitalState.LOW)
+                    .build();
+            colOut.add(pi4j.create(config));
+        }
+
+        // Setup input rows
+        for (int i = 0; i < SIZE; i++) {
+            var config = DigitalInput.newConfigBuilder(pi4j)
+                    .id("ROW" + i)
+                    .address(ROWS[i])
+                    .pull(PullResistance.PULL_DOWN)
+                    .build();
+            rowIn.add(pi4j.create(config));
+        }
+    }
+
+    @Override
+    public void driveColumn(int col, boolean high) {
+        colOut.get(col).state(high ? DigitalState.HIGH : DigitalState.LOW);
+    }
+
+    @Override
+    public boolean readRow(int row) {
+        return rowIn.get(row).state() == DigitalState.HIGH;
+    }
+
+    @Override
+    public void addRowListener(RowListener listener) {
+        for (int i = 0; i < SIZE; i++) {
+            final int row = i;
+            rowIn.get(i).addListener((DigitalStateChangeListener) event ->
+                    listener.onRowChange(row, event.state() == DigitalState.HIGH));
+        }
+    }
+}
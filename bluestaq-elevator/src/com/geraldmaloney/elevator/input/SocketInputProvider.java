@@ -0,0 +1,484 @@
+package com.geraldmaloney.elevator.input;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorSnapshot;
+import com.geraldmaloney.elevator.log.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local control API for a building management system: a Unix domain socket that any number of local
+ * clients can connect to, send commands on and subscribe to the car's state. One background thread runs a
+ * non-blocking NIO selector over every connection, so a slow or stuck client never holds up the control loop.
+ *
+ * Each connection picks its protocol with its first byte:
+ *  - Line protocol: ASCII commands, one per line, the same as the terminal - "7" (floor press), "U3" / "D3"
+ *    (hall calls), "2>9" (destination call), OPEN, CLOSE, BELL, STOP (or ESTOP), emergency prompt answers -
+ *    plus SUBSCRIBE / UNSUBSCRIBE.
+ *    Snapshots come back as lines:
+ *      S timeMs floor status door mode primary cars=1,5 up=3 down=
+ *  - Binary protocol: the byte 0xB1 first, then fixed 3 byte records - opcode, floor as a big-endian short
+ *    (0 when unused). Snapshots come back as 'S', a big-endian short payload length, then: long timeMs,
+ *    short floor, short primary, byte status, door and mode ordinals, then car calls, Up and Down hall calls
+ *    as a short count followed by that many short floors.
+ * Several commands in one write form a batch; they are queued in order. Errors come back as "ERR reason"
+ * lines, or 'E' plus the offending opcode in binary.
+ *
+ * Commands reach the elevator through getNextInput, one per control loop tick in arrival order, like keypad
+ * presses. Subscribers get the current snapshot on SUBSCRIBE and then each new one; a subscriber that can't
+ * keep up skips straight to the latest state instead of buffering a backlog.
+ */
+public class SocketInputProvider implements InputProvider, Closeable {
+
+    public static final String PROPERTY = "elevator.socket";
+
+    public static final int BINARY_MAGIC = 0xB1;
+    public static final int OP_FLOOR = 1;
+    public static final int OP_HALL_UP = 2;
+    public static final int OP_HALL_DOWN = 3;
+    public static final int OP_OPEN = 4;
+    public static final int OP_CLOSE = 5;
+    public static final int OP_ESTOP = 6;
+    public static final int OP_BELL = 7;
+    public static final int OP_SUBSCRIBE = 8;
+    public static final int OP_UNSUBSCRIBE = 9;
+
+    static final int MAX_PENDING_COMMANDS = 64;     // Beyond this, commands are refused rather than queued for minutes
+    private static final int MAX_LINE_BYTES = 64;
+    private static final int BINARY_RECORD_BYTES = 3;
+    private static final int OUT_BUFFER_BYTES = 4096;
+    private static final int S_IFMT = 0170000;          // File type bits of a Unix mode
+    private static final int S_IFSOCK = 0140000;
+
+    private final Path socketPath;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread thread;
+
+    private final Queue<String> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile AbstractElevator elevator;             // Car whose snapshots are streamed; set after construction
+    private volatile ElevatorSnapshot latest;               // Newest snapshot handed to the socket thread
+    private volatile int subscriberCount;                   // Written by the socket thread only
+    private volatile boolean running = true;
+    private ElevatorSnapshot lastSeen;                      // Control thread only
+
+    /**
+     * Binds the socket (replacing a stale socket file left by a previous run) and starts serving.
+     * Fails rather than delete anything at the path that isn't a socket.
+     */
+    public SocketInputProvider(Path socketPath) throws IOException {
+        this.socketPath = socketPath;
+        deleteSocketFile(socketPath);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            server.configureBlocking(false);
+            this.selector = Selector.open();
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        this.thread = new Thread(this::serve, "elevator-socket");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Streams this car's snapshots to subscribers. Separate from the constructor because the car needs
+     * its input provider first.
+     */
+    public void attach(AbstractElevator car) {
+        this.elevator = car;
+        offerSnapshot(car.getSnapshot());
+        car.addEventListener((source, timeMs, type, floor, value) -> offerSnapshot(source.getSnapshot()));
+    }
+
+    /**
+     * Hands the next queued command to the control loop. Also catches snapshots published without an event.
+     */
+    @Override
+    public String getNextInput() {
+        AbstractElevator car = elevator;
+        if (car != null) {
+            offerSnapshot(car.getSnapshot());
+        }
+        String command = commands.poll();
+        if (command != null) {
+            pendingCount.decrementAndGet();
+        }
+        return command;
+    }
+
+    public Path getSocketPath() {
+        return socketPath;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            server.close();
+            deleteSocketFile(socketPath);
+        }
+    }
+
+    /**
+     * Deletes the socket file at the path, if there is one. Throws instead if the path is a regular file,
+     * directory, symlink or anything else, so a mistyped -Delevator.socket can't destroy data.
+     */
+    private static void deleteSocketFile(Path path) throws IOException {
+        boolean socket;
+        try {
+            Object mode = Files.getAttribute(path, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            socket = ((Integer) mode & S_IFMT) == S_IFSOCK;
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (UnsupportedOperationException e) {
+            // No unix view (e.g. Windows): a socket shows up as "other"
+            socket = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isOther();
+        }
+        if (!socket) {
+            throw new FileAlreadyExistsException(path.toString(), null, "not a socket, refusing to replace it");
+        }
+        Files.delete(path);
+    }
+
+    // Control thread: only wake the socket thread when there is a new state and someone to send it to
+    private void offerSnapshot(ElevatorSnapshot snapshot) {
+        if (snapshot == lastSeen) {
+            return;
+        }
+        lastSeen = snapshot;
+        latest = snapshot;
+        if (subscriberCount > 0) {
+            selector.wakeup();
+        }
+    }
+
+    private void serve() {
+        ElevatorSnapshot sent = null;
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Client client = (Client) key.attachment();
+                            if (key.isReadable()) {
+                                client.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                client.flush();
+                            }
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() instanceof Client client) {
+                            client.disconnect();
+                        } else {
+                            Log.warn("Control socket accept failed: " + e.getMessage());
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                ElevatorSnapshot snapshot = latest;
+                if (snapshot != sent && snapshot != null) {
+                    sent = snapshot;
+                    for (SelectionKey key : selector.keys()) {
+                        if (key.isValid() && key.attachment() instanceof Client client && client.subscribed) {
+                            client.sendSnapshot(snapshot);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            Log.warn("Control socket stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Client(channel, key));
+        Log.info("Control socket client connected.");
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    /**
+     * Queues one command for the control loop.
+     * @return false if too many commands are already waiting
+     */
+    private boolean enqueue(String command) {
+        if (pendingCount.incrementAndGet() > MAX_PENDING_COMMANDS) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        commands.add(command);
+        return true;
+    }
+
+    /**
+     * @return the command for a binary record, or null for an unknown opcode
+     */
+    static String binaryCommand(int opcode, int floor) {
+        return switch (opcode) {
+            case OP_FLOOR -> Integer.toString(floor);
+            case OP_HALL_UP -> "U" + floor;
+            case OP_HALL_DOWN -> "D" + floor;
+            case OP_OPEN -> "OPEN";
+            case OP_CLOSE -> "CLOSE";
+            case OP_ESTOP -> "STOP";
+            case OP_BELL -> "BELL";
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the snapshot as one protocol line, without the newline
+     */
+    static String describe(ElevatorSnapshot snapshot) {
+        return "S " + snapshot.timeMs() + " " + snapshot.currentFloor() + " " + snapshot.elevatorStatus()
+                + " " + snapshot.doorStatus() + " " + snapshot.runMode() + " " + snapshot.primaryDestination()
+                + " cars=" + join(snapshot.carCalls()) + " up=" + join(snapshot.hallCallsUp()) + " down=" + join(snapshot.hallCallsDown());
+    }
+
+    private static String join(List<Integer> floors) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < floors.size(); i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(floors.get(i));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes the snapshot as a binary frame.
+     */
+    static void encode(ElevatorSnapshot snapshot, ByteBuffer out) {
+        int lengthAt = out.position() + 1;
+        out.put((byte) 'S').putShort((short) 0);
+        out.putLong(snapshot.timeMs())
+                .putShort((short) snapshot.currentFloor())
+                .putShort((short) snapshot.primaryDestination())
+                .put((byte) snapshot.elevatorStatus().ordinal())
+                .put((byte) snapshot.doorStatus().ordinal())
+                .put((byte) snapshot.runMode().ordinal());
+        putFloors(out, snapshot.carCalls());
+        putFloors(out, snapshot.hallCallsUp());
+        putFloors(out, snapshot.hallCallsDown());
+        out.putShort(lengthAt, (short) (out.position() - lengthAt - 2));
+    }
+
+    private static void putFloors(ByteBuffer out, List<Integer> floors) {
+        out.putShort((short) floors.size());
+        for (int floor : floors) {
+            out.putShort((short) floor);
+        }
+    }
+
+    /**
+     * One connection, touched only by the socket thread.
+     */
+    private class Client {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer in = ByteBuffer.allocate(256);
+        private final ByteBuffer out = ByteBuffer.allocate(OUT_BUFFER_BYTES);     // Kept in write mode
+        private final StringBuilder line = new StringBuilder();
+        private Boolean binary;                 // Decided by the first byte
+        private boolean discarding;             // Skipping the rest of an over-long line
+        private boolean subscribed;
+        private ElevatorSnapshot skipped;       // Newest snapshot that didn't fit while the client was behind
+
+        Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                disconnect();
+                return;
+            }
+            in.flip();
+            if (binary == null && in.hasRemaining()) {
+                binary = (in.get(in.position()) & 0xFF) == BINARY_MAGIC;
+                if (binary) {
+                    in.get();
+                }
+            }
+            if (Boolean.TRUE.equals(binary)) {
+                while (in.remaining() >= BINARY_RECORD_BYTES) {
+                    handleRecord(in.get() & 0xFF, in.getShort());
+                }
+            } else {
+                while (in.hasRemaining()) {
+                    handleChar((char) (in.get() & 0xFF));
+                }
+            }
+            in.compact();
+            flush();
+        }
+
+        private void handleRecord(int opcode, int floor) {
+            if (opcode == OP_SUBSCRIBE || opcode == OP_UNSUBSCRIBE) {
+                setSubscribed(opcode == OP_SUBSCRIBE);
+                return;
+            }
+            String command = binaryCommand(opcode, floor);
+            if (command == null || !enqueue(command)) {
+                reply(new byte[] {'E', (byte) opcode});
+            }
+        }
+
+        private void handleChar(char c) {
+            if (c == '\n') {
+                if (!discarding) {
+                    handleLine(line.toString().trim().toUpperCase());
+                }
+                line.setLength(0);
+                discarding = false;
+            } else if (!discarding) {
+                line.append(c);
+                if (line.length() > MAX_LINE_BYTES) {
+                    replyLine("ERR line too long");
+                    line.setLength(0);
+                    discarding = true;
+                }
+            }
+        }
+
+        private void handleLine(String command) {
+            switch (command) {
+                case "" -> { }
+                case "SUBSCRIBE" -> setSubscribed(true);
+                case "UNSUBSCRIBE" -> setSubscribed(false);
+                case "Q", "QUIT", "EXIT" -> replyLine("ERR " + command + " is keypad only");
+                case "ESTOP" -> handleLine("STOP");
+                default -> {
+                    if (!enqueue(command)) {
+                        replyLine("ERR busy");
+                    }
+                }
+            }
+        }
+
+        private void setSubscribed(boolean subscribe) {
+            if (subscribe == subscribed) {
+                return;
+            }
+            subscribed = subscribe;
+            subscriberCount += subscribe ? 1 : -1;
+            ElevatorSnapshot snapshot = latest;
+            if (subscribe && snapshot != null) {
+                sendSnapshot(snapshot);
+            }
+        }
+
+        void sendSnapshot(ElevatorSnapshot snapshot) {
+            if (out.position() > 0) {
+                skipped = snapshot;             // Still sending an older one - send only the newest when it drains
+                return;
+            }
+            if (Boolean.TRUE.equals(binary)) {
+                encode(snapshot, out);
+            } else {
+                out.put((describe(snapshot) + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                disconnect();
+            }
+        }
+
+        private void replyLine(String text) {
+            reply((text + "\n").getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private void reply(byte[] bytes) {
+            if (out.remaining() >= bytes.length) {
+                out.put(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
+            if (out.position() == 0 && skipped != null) {
+                ElevatorSnapshot snapshot = skipped;
+                skipped = null;
+                sendSnapshot(snapshot);
+                return;
+            }
+            if (key.isValid()) {
+                key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+            }
+        }
+
+        void disconnect() {
+            if (!key.isValid()) {
+                return;
+            }
+            if (subscribed) {
+                subscribed = false;
+                subscriberCount--;
+            }
+            key.cancel();
+            closeQuietly(key);
+            Log.info("Control socket client disconnected.");
+        }
+    }
+}
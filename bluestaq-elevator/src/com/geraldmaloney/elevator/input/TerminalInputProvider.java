@@ -1,5 +1,7 @@
 package com.geraldmaloney.elevator.input;
 
+import com.geraldmaloney.elevator.log.Log;
+
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.IOException;
@@ -26,7 +28,7 @@ public class TerminalInputProvider implements InputProvider {
                 return reader.readLine().trim().toUpperCase();
             }
         } catch (IOException e) {
-            System.out.println("Input error: " + e.getMessage());
+            Log.warn("Input error: " + e.getMessage());
         }
         return null;
     }
@@ -0,0 +1,166 @@
+package com.geraldmaloney.elevator.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ring-buffer appender: write() copies the message into a pre-allocated slot and returns, and a background
+ * thread hands the slots to the real sink (usually ConsoleLogSink -> journald) in order.
+ * The control loop never waits on the terminal or the journal. Slots keep their char arrays, so once
+ * they have grown to the longest message the enqueue allocates nothing.
+ *
+ * Any thread may log. If the consumer falls a whole ring behind, new messages are dropped and counted
+ * rather than blocking the caller - losing a status line is better than a late tick.
+ */
+public class AsyncLogSink implements LogSink, AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = 50_000_000;        // Consumer re-checks at least this often while idle
+
+    private final LogSink delegate;
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();           // Next sequence a producer may claim
+    private volatile long consumed;                                 // Next sequence the consumer will print
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread consumer;
+    private volatile boolean consumerIdle;
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public AsyncLogSink(LogSink delegate, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.delegate = delegate;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i - size);         // Marked as published one lap ago, i.e. empty
+        }
+        this.consumer = new Thread(this::drainLoop, "log-writer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void write(LogLevel level, CharSequence message) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length || !running) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) sequence & mask];
+        slot.fill(level, message);
+        slot.published = sequence;              // Volatile write: hands the slot to the consumer
+        if (consumerIdle) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private void drainLoop() {
+        while (running || consumed != claimed.get()) {
+            if (!drainAvailable()) {
+                consumerIdle = true;
+                if (consumed == claimed.get() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerIdle = false;
+            }
+        }
+    }
+
+    /**
+     * Prints every slot published so far, in order.
+     * @return true if anything was printed
+     */
+    private boolean drainAvailable() {
+        boolean any = false;
+        long next = consumed;
+        Slot slot;
+        while ((slot = slots[(int) next & mask]).published == next) {
+            try {
+                delegate.write(slot.level, slot);
+            } catch (RuntimeException e) {
+                dropped.incrementAndGet();
+            }
+            consumed = ++next;                  // Volatile write: frees the slot for producers
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * @return messages thrown away because the ring was full (or the sink was closed)
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Prints whatever is still queued, then stops the writer thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One ring entry. Doubles as the CharSequence handed to the delegate, so printing allocates nothing either.
+     */
+    private static final class Slot implements CharSequence {
+        volatile long published;
+        LogLevel level;
+        char[] text = new char[128];
+        int length;
+
+        Slot(long published) {
+            this.published = published;
+        }
+
+        void fill(LogLevel messageLevel, CharSequence message) {
+            int count = message.length();
+            if (count > text.length) {
+                text = new char[Math.max(count, text.length * 2)];
+            }
+            if (message instanceof String) {
+                ((String) message).getChars(0, count, text, 0);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    text[i] = message.charAt(i);
+                }
+            }
+            level = messageLevel;
+            length = count;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(text, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(text, 0, length);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.geraldmaloney.elevator.log;
+
+import java.io.PrintStream;
+
+/**
+ * Prints each message as its own line on a console stream, System.out unless given another.
+ * INFO lines are printed as-is, since they make up the console UI; other levels get their name in front.
+ * Simulations that don't want the chatter turn it off with Log.setLevel(LogLevel.OFF).
+ *
+ * ASCII text is copied straight into a reused byte buffer and written in one call, skipping PrintStream's
+ * charset encoder and its per-call garbage. Anything else falls back to println.
+ */
+public class ConsoleLogSink implements LogSink {
+
+    private final PrintStream out;
+    private byte[] bytes = new byte[256];
+
+    public ConsoleLogSink() {
+        this(System.out);
+    }
+
+    public ConsoleLogSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public synchronized void write(LogLevel level, CharSequence message) {
+        int length = 0;
+        if (level != LogLevel.INFO) {
+            length = copyAscii(level.name(), length);
+            length = copyAscii(": ", length);
+        }
+        length = copyAscii(message, length);
+        if (length < 0) {
+            out.println((level == LogLevel.INFO ? "" : level.name() + ": ") + message);
+            return;
+        }
+        ensureCapacity(length + 1);
+        bytes[length++] = '\n';
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * @return new length, or -1 if the text isn't plain ASCII (or an earlier copy already failed)
+     */
+    private int copyAscii(CharSequence text, int length) {
+        if (length < 0) {
+            return -1;
+        }
+        int count = text.length();
+        ensureCapacity(length + count);
+        for (int i = 0; i < count; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return -1;
+            }
+            bytes[length++] = (byte) c;
+        }
+        return length;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > bytes.length) {
+            byte[] grown = new byte[Math.max(needed, bytes.length * 2)];
+            System.arraycopy(bytes, 0, grown, 0, bytes.length);
+            bytes = grown;
+        }
+    }
+}
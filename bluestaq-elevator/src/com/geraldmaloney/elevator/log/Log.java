@@ -0,0 +1,65 @@
+package com.geraldmaloney.elevator.log;
+
+/**
+ * Logging facade for the controller: a level filter in front of a swappable sink.
+ * The level comes from -Delevator.log.level (default INFO, so DEBUG chatter stays off in production).
+ * The default sink prints synchronously to System.out; Main swaps in an AsyncLogSink so the control loop
+ * only pays for an enqueue while journald does its writing on another thread.
+ */
+public final class Log {
+
+    private static volatile LogLevel level = LogLevel.parse(System.getProperty("elevator.log.level"), LogLevel.INFO);
+    private static volatile LogSink sink = new ConsoleLogSink();
+
+    private Log() {
+    }
+
+    public static void debug(CharSequence message) {
+        write(LogLevel.DEBUG, message);
+    }
+
+    public static void info(CharSequence message) {
+        write(LogLevel.INFO, message);
+    }
+
+    public static void warn(CharSequence message) {
+        write(LogLevel.WARN, message);
+    }
+
+    public static void error(CharSequence message) {
+        write(LogLevel.ERROR, message);
+    }
+
+    /**
+     * Check before building an expensive DEBUG message, so disabled messages cost nothing.
+     */
+    public static boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public static boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && messageLevel != LogLevel.OFF;
+    }
+
+    public static void write(LogLevel messageLevel, CharSequence message) {
+        if (isEnabled(messageLevel)) {
+            sink.write(messageLevel, message);
+        }
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    public static void setSink(LogSink newSink) {
+        sink = newSink;
+    }
+}
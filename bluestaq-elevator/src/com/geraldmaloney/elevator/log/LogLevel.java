@@ -0,0 +1,26 @@
+package com.geraldmaloney.elevator.log;
+
+/**
+ * Severity of a log message, lowest first. A logger set to a level prints that level and everything above it.
+ */
+public enum LogLevel {
+    DEBUG,          // Developer chatter (raw key presses, scan details) - off in production
+    INFO,           // Normal operation: status screen, doors, arrivals, prompts
+    WARN,           // Something failed but the elevator keeps running (log file, display error)
+    ERROR,          // Something failed that needs attention
+    OFF;            // Nothing is printed
+
+    /**
+     * Parses a level name (any case), falling back to the default for null or unknown names.
+     */
+    public static LogLevel parse(String name, LogLevel fallback) {
+        if (name != null) {
+            for (LogLevel level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) {
+                    return level;
+                }
+            }
+        }
+        return fallback;
+    }
+}
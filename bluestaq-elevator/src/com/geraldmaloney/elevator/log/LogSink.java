@@ -0,0 +1,9 @@
+package com.geraldmaloney.elevator.log;
+
+/**
+ * Destination for log messages.
+ * The message may be a reused buffer, so a sink must be done with it (or have copied it) when write returns.
+ */
+public interface LogSink {
+    void write(LogLevel level, CharSequence message);
+}
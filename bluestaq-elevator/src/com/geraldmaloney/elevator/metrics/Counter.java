@@ -0,0 +1,42 @@
+package com.geraldmaloney.elevator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic count of events (arrivals, tick overruns...). Incrementing never allocates.
+ * By Prometheus convention counter names end in _total.
+ */
+public class Counter implements Metric {
+
+    private final String name;
+    private final String help;
+    private final AtomicLong value = new AtomicLong();
+
+    Counter(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long amount) {
+        value.addAndGet(amount);
+    }
+
+    public long get() {
+        return value.get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        Metric.writeHeader(out, name, help, "counter");
+        out.append(name).append(" ").append(value.get()).append('\n');
+    }
+}
@@ -0,0 +1,92 @@
+package com.geraldmaloney.elevator.metrics;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.DoorStatus;
+import com.geraldmaloney.elevator.display.AsyncDisplayAdapter;
+import com.geraldmaloney.elevator.display.LcdDisplayAdapter;
+import com.geraldmaloney.elevator.event.ElevatorEventListener;
+import com.geraldmaloney.elevator.event.ElevatorEventType;
+
+/**
+ * The controller's standard metric set. Loop timings are recorded by Main around each call;
+ * door and arrival metrics come from the elevator's event bus, timed on the elevator clock.
+ */
+public class ElevatorMetrics implements ElevatorEventListener {
+
+    public final Histogram tick;
+    public final Histogram tickLateness;
+    public final Histogram goToNextFloor;
+    public final Histogram printStatus;
+    public final Histogram inputPoll;
+    public final Histogram displayUpdate;
+    public final Histogram doorOpen;
+    public final Histogram doorClose;
+    public final Counter tickOverruns;
+    public final Counter ticksSkipped;
+    public final Counter arrivals;
+    public final Counter floorsTravelled;
+    public final Counter runModeChanges;
+
+    private long doorMotionStartedMs = -1;      // Elevator clock time the door started opening or closing
+
+    public ElevatorMetrics(MetricsRegistry registry) {
+        tick = registry.histogram("elevator_tick_seconds", "Work done per control loop tick");
+        tickLateness = registry.histogram("elevator_tick_lateness_seconds", "How late each tick started after its fixed-rate deadline");
+        goToNextFloor = registry.histogram("elevator_go_to_next_floor_seconds", "Time spent in goToNextFloor");
+        printStatus = registry.histogram("elevator_print_status_seconds", "Time spent in printStatus");
+        inputPoll = registry.histogram("elevator_input_poll_seconds", "Time spent in getNextInput");
+        displayUpdate = registry.histogram("elevator_display_update_seconds", "Time to draw one frame on the display");
+        doorOpen = registry.histogram("elevator_door_open_seconds", "Door opening time, from start of motion to fully open");
+        doorClose = registry.histogram("elevator_door_close_seconds", "Door closing time, from start of motion to fully closed");
+        tickOverruns = registry.counter("elevator_tick_overruns_total", "Ticks whose work ran past the next tick's deadline");
+        ticksSkipped = registry.counter("elevator_ticks_skipped_total", "Tick deadlines skipped after an overrun");
+        arrivals = registry.counter("elevator_arrivals_total", "Stops made to serve a request");
+        floorsTravelled = registry.counter("elevator_floors_travelled_total", "Floors moved");
+        runModeChanges = registry.counter("elevator_run_mode_changes_total", "Emergency modes entered or left");
+    }
+
+    /**
+     * Subscribes to a car's events and exposes its queue depth and position as gauges.
+     * The gauges read the car's snapshot, since scrapes arrive on the HTTP server's thread.
+     */
+    public void attach(AbstractElevator car, MetricsRegistry registry) {
+        registry.gauge("elevator_queue_depth", "Pending car calls plus hall calls", () -> car.getSnapshot().requestCount());
+        registry.gauge("elevator_current_floor", "Floor the car is on", () -> car.getSnapshot().currentFloor());
+        car.addEventListener(this);
+    }
+
+    /**
+     * Exposes the display pipeline's frame counters as gauges: frames the async adapter replaced or dropped
+     * before they were drawn, and the LCD's skipped frames and saved GPIO writes.
+     */
+    public void attachDisplay(AsyncDisplayAdapter display, LcdDisplayAdapter lcd, MetricsRegistry registry) {
+        registry.gauge("elevator_display_frames_coalesced", "Frames replaced by a newer one before being drawn", display::getFramesCoalesced);
+        registry.gauge("elevator_display_frames_dropped", "Frames submitted after close or that failed to draw", display::getFramesDropped);
+        registry.gauge("elevator_lcd_frames_skipped", "LCD updates skipped because nothing on screen changed", lcd::getFramesSkipped);
+        registry.gauge("elevator_lcd_gpio_writes_saved", "GPIO pin writes avoided compared to full redraws", lcd::getGpioWritesSaved);
+    }
+
+    @Override
+    public void onEvent(AbstractElevator elevator, long timeMs, ElevatorEventType type, int floor, int value) {
+        switch (type) {
+            case DOOR_MOVING -> doorMotionStartedMs = timeMs;
+            case DOOR_CHANGED -> {
+                if (doorMotionStartedMs >= 0) {
+                    long nanos = (timeMs - doorMotionStartedMs) * 1_000_000;
+                    if (value == DoorStatus.OPEN.ordinal()) {
+                        doorOpen.record(nanos);
+                    } else if (value == DoorStatus.CLOSED.ordinal()) {
+                        doorClose.record(nanos);
+                    }
+                    doorMotionStartedMs = -1;
+                }
+            }
+            case ARRIVED -> arrivals.increment();
+            case FLOOR_CHANGED -> floorsTravelled.increment();
+            case RUN_MODE_CHANGED -> runModeChanges.increment();
+            default -> {
+                // Calls and direction changes aren't counted here
+            }
+        }
+    }
+}
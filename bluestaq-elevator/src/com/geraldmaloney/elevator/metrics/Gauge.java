@@ -0,0 +1,40 @@
+package com.geraldmaloney.elevator.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Current value of something that goes up and down (queue depth, current floor).
+ * Either set explicitly, or read from a supplier when the metrics are exported.
+ */
+public class Gauge implements Metric {
+
+    private final String name;
+    private final String help;
+    private final LongSupplier supplier;    // Null for gauges that are set explicitly
+    private volatile long value;
+
+    Gauge(String name, String help, LongSupplier supplier) {
+        this.name = name;
+        this.help = help;
+        this.supplier = supplier;
+    }
+
+    public void set(long value) {
+        this.value = value;
+    }
+
+    public long get() {
+        return supplier != null ? supplier.getAsLong() : value;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        Metric.writeHeader(out, name, help, "gauge");
+        out.append(name).append(' ').append(get()).append('\n');
+    }
+}
@@ -0,0 +1,115 @@
+package com.geraldmaloney.elevator.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HDR-style latency histogram over nanosecond values, exported as a Prometheus summary in seconds.
+ * Buckets are log-linear: every power of two is split into 16 linear sub-buckets, so any recorded
+ * value is reported within ~6% while the whole range (1 ns .. ~18 minutes) fits in a fixed array.
+ * Recording is a few shifts and one atomic increment - no allocation, no locks.
+ */
+public class Histogram implements Metric {
+
+    private static final int SUB_BUCKET_BITS = 5;                       // Values below 32 get exact buckets
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;           // ~18 minutes in nanoseconds
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String name;
+    private final String help;
+    private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_TRACKABLE) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    /**
+     * Records one value in nanoseconds. Negative values count as 0, huge ones are clamped.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_TRACKABLE));
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // Another thread raised the max first - retry against the new value
+        }
+    }
+
+    /**
+     * Records the time elapsed since a System.nanoTime() reading.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the value (ns) at the given quantile (0..1), accurate to the bucket width
+     */
+    public long valueAtQuantile(double quantile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_HALF) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKET_HALF) {
+            return index;
+        }
+        int shift = (index >> (SUB_BUCKET_BITS - 1)) - 1;
+        long mantissa = index - ((long) shift << (SUB_BUCKET_BITS - 1));
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void writePrometheus(StringBuilder out) {
+        Metric.writeHeader(out, name, help, "summary");
+        for (double quantile : QUANTILES) {
+            out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(valueAtQuantile(quantile) / 1e9).append('\n');
+        }
+        out.append(name).append("_sum ").append(sum.get() / 1e9).append('\n');
+        out.append(name).append("_count ").append(count.get()).append('\n');
+
+        // Worst case is its own gauge family - Prometheus summaries have no max sample
+        Metric.writeHeader(out, name + "_max", "Largest value seen for " + name, "gauge");
+        out.append(name).append("_max ").append(max.get() / 1e9).append('\n');
+    }
+}
@@ -0,0 +1,22 @@
+package com.geraldmaloney.elevator.metrics;
+
+/**
+ * Something the registry can export in Prometheus text format.
+ */
+public interface Metric {
+
+    String getName();
+
+    /**
+     * Appends this metric's HELP/TYPE header and samples in Prometheus text format.
+     */
+    void writePrometheus(StringBuilder out);
+
+    /**
+     * Appends the HELP and TYPE lines that start a metric family.
+     */
+    static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+}
@@ -0,0 +1,56 @@
+package com.geraldmaloney.elevator.metrics;
+
+import com.geraldmaloney.elevator.log.Log;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dumps the metrics to a file at a fixed scrape interval, for boxes with no network scrape.
+ * Writes happen on a single background thread, so the control loop never formats or writes metrics.
+ */
+public class MetricsFileWriter implements AutoCloseable {
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsFileWriter(MetricsRegistry registry, Path file, long intervalMs) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("Metrics interval must be positive: " + intervalMs);
+        }
+        this.registry = registry;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-file");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::write, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void write() {
+        try {
+            registry.writeTo(file);
+        } catch (IOException e) {
+            Log.warn("Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the schedule and writes one last dump, so the file holds the final counts.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+}
@@ -0,0 +1,43 @@
+package com.geraldmaloney.elevator.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tiny embedded HTTP endpoint serving GET /metrics for a Prometheus scraper.
+ * Uses the JDK's built-in server on a single background thread, so the control loop is never involved.
+ */
+public class MetricsHttpServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    public MetricsHttpServer(MetricsRegistry registry, InetSocketAddress address) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = registry.toPrometheusText().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(null);       // Handle scrapes on the server's own thread
+        server.start();
+    }
+
+    /**
+     * @return the port actually bound (useful when started on port 0)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
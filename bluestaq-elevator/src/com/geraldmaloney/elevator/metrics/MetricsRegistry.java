@@ -0,0 +1,68 @@
+package com.geraldmaloney.elevator.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds every metric the controller exposes. Metrics are created once at startup; after that,
+ * updating them never allocates. Exporting (HTTP scrape or file dump) builds the Prometheus text on demand.
+ */
+public class MetricsRegistry {
+
+    private final List<Metric> metrics = new CopyOnWriteArrayList<>();
+
+    public Counter counter(String name, String help) {
+        return register(new Counter(name, help));
+    }
+
+    public Gauge gauge(String name, String help) {
+        return register(new Gauge(name, help, null));
+    }
+
+    /**
+     * A gauge that reads its value from the supplier at export time.
+     */
+    public Gauge gauge(String name, String help, LongSupplier supplier) {
+        return register(new Gauge(name, help, supplier));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return register(new Histogram(name, help));
+    }
+
+    private <T extends Metric> T register(T metric) {
+        for (Metric existing : metrics) {
+            if (existing.getName().equals(metric.getName())) {
+                throw new IllegalArgumentException("Metric " + metric.getName() + " is already registered.");
+            }
+        }
+        metrics.add(metric);
+        return metric;
+    }
+
+    /**
+     * @return every metric in Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Metric metric : metrics) {
+            metric.writePrometheus(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the metrics to a file for boxes with no network scrape (e.g. node_exporter's textfile collector).
+     * Written to a temp file and moved into place, so readers never see a half-written file.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temp, toPrometheusText());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
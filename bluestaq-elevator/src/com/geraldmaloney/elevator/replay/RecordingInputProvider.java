@@ -0,0 +1,121 @@
+package com.geraldmaloney.elevator.replay;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ElevatorSnapshot;
+import com.geraldmaloney.elevator.input.InputProvider;
+import com.geraldmaloney.elevator.log.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Decorator that records every input by tick number, along with the elevator's state trace,
+ * so a field run can be re-executed exactly with ReplayRunner.
+ * One call to getNextInput is one tick of the control loop, so ticks line up with Main's loop.
+ */
+public class RecordingInputProvider implements InputProvider, Closeable {
+
+    private final InputProvider delegate;
+    private final Writer out;
+    private AbstractElevator elevator;      // Car whose state is traced; set after construction
+    private String lastState;
+    private ElevatorSnapshot lastSnapshot;  // State is only re-described when the car publishes a new snapshot
+    private long tick = 0;
+    private boolean failed = false;         // Stop recording after the first write error, keep the elevator running
+    private boolean unflushed = false;      // Lines written since the last flush - idle ticks write nothing
+
+    public RecordingInputProvider(InputProvider delegate, Writer out) {
+        this(delegate, out, Map.of());
+    }
+
+    /**
+     * Writes the settings into the header, so ReplayRunner can start the replay the same way.
+     */
+    public RecordingInputProvider(InputProvider delegate, Writer out, Map<String, String> settings) {
+        this.delegate = delegate;
+        this.out = out;
+        write(ReplayLog.HEADER);
+        settings.forEach((property, value) -> write(ReplayLog.SETTING_PREFIX + property + "=" + value));
+        flush();
+    }
+
+    /**
+     * Traces this car's state. Separate from the constructor because the car needs its input provider first.
+     */
+    public void setElevator(AbstractElevator elevator) {
+        this.elevator = elevator;
+    }
+
+    /**
+     * Records the state the car is in at this tick, then the input (if any) read from the real provider.
+     */
+    @Override
+    public String getNextInput() {
+        tick++;
+        if (elevator != null && elevator.getSnapshot() != lastSnapshot) {
+            lastSnapshot = elevator.getSnapshot();
+            String state = ReplayLog.describeState(elevator);
+            if (!state.equals(lastState)) {
+                write("S " + tick + " " + state);
+                lastState = state;
+            }
+        }
+        String input = delegate.getNextInput();
+        if (input != null) {
+            write("I " + tick + " " + input);
+        }
+        if (unflushed) {
+            flush();
+        }
+        return input;
+    }
+
+    /**
+     * Records that the control loop skipped deadlines before the current tick, so replay skips them too.
+     * Call from the tick listener, which reports skips on the tick after the overrun.
+     */
+    public void recordSkippedTicks(long skippedTicks) {
+        if (skippedTicks > 0) {
+            write("K " + tick + " " + skippedTicks);
+            flush();
+        }
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void write(String line) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.write(line);
+            out.write('\n');
+            unflushed = true;
+        } catch (IOException e) {
+            failed = true;
+            Log.warn("Replay recording stopped: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.flush();
+            unflushed = false;
+        } catch (IOException e) {
+            failed = true;
+            Log.warn("Replay recording stopped: " + e.getMessage());
+        }
+    }
+}
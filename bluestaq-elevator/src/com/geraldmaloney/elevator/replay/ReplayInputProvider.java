@@ -0,0 +1,36 @@
+package com.geraldmaloney.elevator.replay;
+
+import com.geraldmaloney.elevator.input.InputProvider;
+
+/**
+ * Feeds a recorded run back into the control loop, returning each input on the same tick it was originally read.
+ */
+public class ReplayInputProvider implements InputProvider {
+
+    private final ReplayLog log;
+    private long tick = 0;
+
+    public ReplayInputProvider(ReplayLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public String getNextInput() {
+        tick++;
+        return log.getInput(tick);
+    }
+
+    /**
+     * @return deadlines the recorded loop skipped right after the tick just played back
+     */
+    public long getSkippedAfterCurrentTick() {
+        return log.getSkippedBefore(tick + 1);
+    }
+
+    /**
+     * @return true once every recorded tick has been played back
+     */
+    public boolean isFinished() {
+        return tick >= log.getLastTick();
+    }
+}
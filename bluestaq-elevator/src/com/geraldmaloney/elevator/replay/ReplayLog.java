@@ -0,0 +1,197 @@
+package com.geraldmaloney.elevator.replay;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.DwellMode;
+import com.geraldmaloney.elevator.dispatch.DeadlineStrategy;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.log.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A recorded run: every input keyed by the control loop tick it was read on, plus the elevator state
+ * trace (written only when the state changes). Plain text, one entry per line, after a header naming the
+ * settings the run started with (logs from before the header have none):
+ *   # setting <property>=<value>
+ *   I <tick> <input>
+ *   S <tick> <floor> <direction> <door> <run mode> <primary destination>
+ *   K <tick> <count>      (count deadlines were skipped before this tick because the control loop fell behind)
+ */
+public class ReplayLog {
+
+    public static final String HEADER = "# elevator replay log v1";
+    public static final String DIR_PROPERTY = "elevator.replay.dir";
+    public static final String KEEP_PROPERTY = "elevator.replay.keep";
+    public static final int DEFAULT_KEEP = 20;
+    private static final String FILE_PREFIX = "elevator-replay-";
+    private static final String FILE_SUFFIX = ".log";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    static final String SETTING_PREFIX = "# setting ";
+
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private final Map<Long, String> inputsByTick = new HashMap<>();
+    private final Map<Long, Long> skippedBeforeTick = new HashMap<>();
+    private final List<String> stateTrace = new ArrayList<>();
+    private long lastTick = 0;
+
+    /**
+     * Parses a log written by RecordingInputProvider.
+     */
+    public static ReplayLog read(BufferedReader reader) throws IOException {
+        ReplayLog log = new ReplayLog();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith(SETTING_PREFIX)) {
+                String setting = line.substring(SETTING_PREFIX.length());
+                int equals = setting.indexOf('=');
+                if (equals <= 0) {
+                    throw new IOException("Bad setting on line " + lineNumber + ": " + line);
+                }
+                log.settings.put(setting.substring(0, equals), setting.substring(equals + 1));
+                continue;
+            }
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(" ", 3);
+            if (parts.length < 3 || (!parts[0].equals("I") && !parts[0].equals("S") && !parts[0].equals("K"))) {
+                throw new IOException("Bad replay log entry on line " + lineNumber + ": " + line);
+            }
+            long tick;
+            try {
+                tick = Long.parseLong(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad tick number on line " + lineNumber + ": " + line);
+            }
+            if (parts[0].equals("I")) {
+                log.inputsByTick.put(tick, parts[2]);
+            } else if (parts[0].equals("K")) {
+                try {
+                    log.skippedBeforeTick.put(tick, Long.parseLong(parts[2]));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad skip count on line " + lineNumber + ": " + line);
+                }
+            } else {
+                log.stateTrace.add(line);
+            }
+            log.lastTick = Math.max(log.lastTick, tick);
+        }
+        return log;
+    }
+
+    public static ReplayLog read(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Creates the file for a new recording in the directory (created if missing), named by start time, e.g.
+     * elevator-replay-20261018-101500-123.log. Earlier runs are never overwritten, so the session that ended
+     * in a fault is still there after the restart; only the oldest recordings beyond the newest keep are deleted.
+     */
+    public static Path newRecordingFile(Path dir, int keep) throws IOException {
+        Files.createDirectories(dir);
+        deleteOldRecordings(dir, Math.max(0, keep - 1));
+        String stamp = LocalDateTime.now().format(FILE_TIME);
+        Path file = dir.resolve(FILE_PREFIX + stamp + FILE_SUFFIX);
+        for (int n = 1; Files.exists(file); n++) {
+            file = dir.resolve(FILE_PREFIX + stamp + "-" + n + FILE_SUFFIX);     // Two starts in the same millisecond
+        }
+        return Files.createFile(file);
+    }
+
+    /**
+     * Deletes all but the newest keep recordings. Names sort by start time, so the oldest sort first.
+     */
+    private static void deleteOldRecordings(Path dir, int keep) throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(dir)) {
+            recordings = files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).sorted().toList();
+        }
+        for (int i = 0; i < recordings.size() - keep; i++) {
+            try {
+                Files.delete(recordings.get(i));
+            } catch (IOException e) {
+                Log.warn("Could not delete old replay log " + recordings.get(i) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the value the run was started with for a system property, or null if the log doesn't record it
+     */
+    public String getSetting(String property) {
+        return settings.get(property);
+    }
+
+    /**
+     * The settings that change how a run plays out, as this JVM resolves them: building file (empty for the
+     * demo building), door dwell mode, dispatch algorithm and dispatch deadline.
+     */
+    public static Map<String, String> currentSettings() {
+        Map<String, String> current = new LinkedHashMap<>();
+        String building = System.getProperty(Building.PROPERTY);
+        current.put(Building.PROPERTY, building == null ? "" : Path.of(building).toAbsolutePath().toString());
+        current.put(DwellMode.PROPERTY, DwellMode.fromSystemProperty().name());
+        current.put(DispatchAlgorithm.PROPERTY, DispatchAlgorithm.fromSystemProperty().name());
+        current.put(DeadlineStrategy.DEADLINE_PROPERTY,
+                String.valueOf(Long.getLong(DeadlineStrategy.DEADLINE_PROPERTY, DeadlineStrategy.DEFAULT_DEADLINE_MS)));
+        return current;
+    }
+
+    /**
+     * @return the input read on the given tick, or null if nothing was pressed
+     */
+    public String getInput(long tick) {
+        return inputsByTick.get(tick);
+    }
+
+    /**
+     * @return deadlines the recorded loop skipped just before the given tick (0 normally)
+     */
+    public long getSkippedBefore(long tick) {
+        return skippedBeforeTick.getOrDefault(tick, 0L);
+    }
+
+    public int getInputCount() {
+        return inputsByTick.size();
+    }
+
+    /**
+     * @return recorded state lines, in tick order
+     */
+    public List<String> getStateTrace() {
+        return Collections.unmodifiableList(stateTrace);
+    }
+
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    /**
+     * @return the state fields compared between a recording and its replay
+     */
+    static String describeState(AbstractElevator elevator) {
+        return elevator.getCurrentFloor() + " " + elevator.getElevatorStatus() + " " + elevator.getDoorStatus()
+                + " " + elevator.getRunMode() + " " + elevator.getPrimaryDestination();
+    }
+}
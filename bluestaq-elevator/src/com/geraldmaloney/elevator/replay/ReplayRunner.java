@@ -0,0 +1,185 @@
+package com.geraldmaloney.elevator.replay;
+
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.DwellMode;
+import com.geraldmaloney.elevator.PassengerElevator;
+import com.geraldmaloney.elevator.clock.FixedRateTickEngine;
+import com.geraldmaloney.elevator.clock.VirtualClock;
+import com.geraldmaloney.elevator.dispatch.DeadlineStrategy;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.dispatch.DispatchStrategy;
+import com.geraldmaloney.elevator.dispatch.EtaCostPolicy;
+import com.geraldmaloney.elevator.dispatch.GroupController;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Re-executes a recorded run through PassengerElevator on virtual time, as fast as the CPU allows,
+ * and diffs the resulting state trace against the recorded one. The building, dwell mode and dispatch
+ * settings come from the log's header; a -D property given to the replay overrides the recorded value
+ * (e.g. when the building file lives somewhere else on this machine), and logs without a header fall
+ * back to the properties and defaults.
+ *
+ * Usage: ReplayRunner <replay log> [--verbose]
+ */
+public class ReplayRunner {
+
+    private static final long TICK_RATE_MS = 1000;      // Same tick rate as Main
+
+    /**
+     * Outcome of a replay: how far the traces agree and where they first differ.
+     */
+    public static class Result {
+        final List<String> recorded;
+        final List<String> replayed;
+        final int firstDifference;          // Index into the traces, or -1 if they match
+        final long ticks;
+        final long elevatorTimeMs;
+
+        Result(List<String> recorded, List<String> replayed, long ticks, long elevatorTimeMs) {
+            this.recorded = recorded;
+            this.replayed = replayed;
+            this.ticks = ticks;
+            this.elevatorTimeMs = elevatorTimeMs;
+            int difference = -1;
+            for (int i = 0; i < Math.max(recorded.size(), replayed.size()); i++) {
+                if (i >= recorded.size() || i >= replayed.size() || !recorded.get(i).equals(replayed.get(i))) {
+                    difference = i;
+                    break;
+                }
+            }
+            this.firstDifference = difference;
+        }
+
+        public boolean matches() {
+            return firstDifference == -1;
+        }
+
+        public int getFirstDifference() {
+            return firstDifference;
+        }
+    }
+
+    /**
+     * Replays the log. Mirrors Main's control loop tick for tick: the same fixed-rate engine and tick work,
+     * on a VirtualClock instead of Main's PacedClock, so time jumps instead of waiting.
+     */
+    public static Result replay(ReplayLog log) throws IOException {
+        VirtualClock clock = new VirtualClock();
+        ReplayInputProvider source = new ReplayInputProvider(log);
+        StringWriter trace = new StringWriter();
+        RecordingInputProvider inputProvider = new RecordingInputProvider(source, trace);
+        PassengerElevator elevator = new PassengerElevator(inputProvider, null, clock, building(log));
+        elevator.setDwellMode(DwellMode.parse(setting(log, DwellMode.PROPERTY), DwellMode.fromSystemProperty()));
+        elevator.setDispatchStrategy(dispatchStrategy(log));
+        inputProvider.setElevator(elevator);
+        GroupController group = new GroupController(List.of(elevator), new EtaCostPolicy());
+
+        FixedRateTickEngine engine = new FixedRateTickEngine(clock, TICK_RATE_MS);
+        engine.run(() -> {
+            elevator.goToNextFloor();
+            elevator.printStatus();
+
+            String input = inputProvider.getNextInput();
+            if (input != null) {
+                Log.info("KEYPAD INPUT: " + input);
+
+                switch (input) {
+                    case "Q", "QUIT", "EXIT" -> engine.stop();
+                    default -> {
+                        if (!group.handleDestinationInput(input)) {
+                            elevator.handleInput(input);
+                        }
+                    }
+                }
+            }
+            engine.skipTicks(source.getSkippedAfterCurrentTick());     // Fell behind in the field - lose the same deadlines
+            if (source.isFinished()) {
+                engine.stop();
+            }
+        });
+
+        ReplayLog replayed = ReplayLog.read(new BufferedReader(new StringReader(trace.toString())));
+        return new Result(log.getStateTrace(), replayed.getStateTrace(), inputProvider.getTick(), clock.currentTimeMillis());
+    }
+
+    /**
+     * @return the property given to this JVM if set, otherwise the value recorded in the log (null if neither)
+     */
+    private static String setting(ReplayLog log, String property) {
+        String value = System.getProperty(property);
+        return (value != null) ? value : log.getSetting(property);
+    }
+
+    private static Building building(ReplayLog log) {
+        String file = setting(log, Building.PROPERTY);
+        if (file == null || file.isEmpty()) {
+            return Building.standard();
+        }
+        try {
+            return Building.load(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read building file " + file
+                    + " (pass -D" + Building.PROPERTY + " if it has moved)", e);
+        }
+    }
+
+    private static DispatchStrategy dispatchStrategy(ReplayLog log) {
+        DispatchAlgorithm algorithm = DispatchAlgorithm.parse(setting(log, DispatchAlgorithm.PROPERTY), DispatchAlgorithm.fromSystemProperty());
+        String deadline = setting(log, DeadlineStrategy.DEADLINE_PROPERTY);
+        if (algorithm == DispatchAlgorithm.DEADLINE && deadline != null) {
+            try {
+                return new DeadlineStrategy(Long.parseLong(deadline.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad dispatch deadline: " + deadline);
+            }
+        }
+        return algorithm.create();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ReplayRunner <replay log> [--verbose]");
+            return;
+        }
+        boolean verbose = args.length > 1 && args[1].equals("--verbose");
+        ReplayLog log = ReplayLog.read(Path.of(args[0]));
+
+        LogLevel logLevel = Log.getLevel();
+        if (!verbose) {
+            Log.setLevel(LogLevel.OFF);   // Elevator chatter would dominate run time
+        }
+        long started = System.nanoTime();
+        Result result;
+        try {
+            result = replay(log);
+        } finally {
+            Log.setLevel(logLevel);
+        }
+        double wallMs = (System.nanoTime() - started) / 1_000_000.0;
+
+        System.out.printf("Replayed %d ticks (%d inputs, %.1f s of elevator time) in %.1f ms%n",
+                result.ticks, log.getInputCount(), result.elevatorTimeMs / 1000.0, wallMs);
+        if (result.matches()) {
+            System.out.printf("State trace matches: %d state changes%n", result.recorded.size());
+            return;
+        }
+
+        int at = result.firstDifference;
+        System.out.printf("State trace DIVERGES at change #%d%n", at + 1);
+        for (int i = Math.max(0, at - 3); i < at; i++) {
+            System.out.println("    " + result.recorded.get(i));
+        }
+        System.out.println("  - " + (at < result.recorded.size() ? result.recorded.get(at) : "<end of recording>"));
+        System.out.println("  + " + (at < result.replayed.size() ? result.replayed.get(at) : "<end of replay>"));
+        System.exit(1);
+    }
+}
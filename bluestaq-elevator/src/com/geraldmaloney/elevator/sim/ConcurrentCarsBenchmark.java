@@ -0,0 +1,148 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.PassengerElevator;
+import com.geraldmaloney.elevator.clock.PacedClock;
+import com.geraldmaloney.elevator.exec.CarRunner;
+import com.geraldmaloney.elevator.exec.CarThreadMode;
+import com.geraldmaloney.elevator.exec.CarThreads;
+import com.geraldmaloney.elevator.metrics.Histogram;
+import com.geraldmaloney.elevator.metrics.MetricsRegistry;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How many independent cars one JVM can run at real-time speed.
+ * Every car gets its own thread, PacedClock and rider stream and ticks at Main's rate against the wall clock.
+ * The fleet doubles each round until ticks start missing their deadlines: a round is sustained when
+ * p99 tick lateness stays under LATE_LIMIT_MS and no tick had to be skipped.
+ *
+ * Usage: ConcurrentCarsBenchmark [VIRTUAL|PLATFORM] [startCars] [maxCars] [secondsPerRound]
+ */
+public class ConcurrentCarsBenchmark {
+
+    private static final long TICK_MS = 1000;                       // Same tick rate as Main
+    private static final long LATE_LIMIT_MS = 50;                   // p99 lateness allowed for a sustained round
+    private static final double PASSENGERS_PER_HOUR = 120;          // Per car
+
+    public static void main(String[] args) throws InterruptedException {
+        CarThreadMode requested = args.length > 0 ? CarThreadMode.valueOf(args[0].toUpperCase()) : CarThreadMode.VIRTUAL;
+        int startCars = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int maxCars = args.length > 2 ? Integer.parseInt(args[2]) : 32_000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        CarThreadMode mode = CarThreads.effectiveMode(requested);
+        System.out.println("Concurrent cars benchmark: " + mode + " threads, " + seconds + " s per round, "
+                + TICK_MS + " ms tick, Java " + Runtime.version().feature());
+        if (mode != requested) {
+            System.out.println("(" + requested + " threads need Java 21+, falling back to " + mode + ")");
+        }
+        System.out.printf("%-7s %9s %9s %9s %9s %8s %9s %9s  %s%n",
+                "Cars", "Ticks", "P50 ms", "P99 ms", "Max ms", "Skipped", "Riders", "Heap MB", "Sustained");
+
+        for (int cars = startCars; cars <= maxCars; cars *= 2) {
+            Round round;
+            try {
+                round = run(mode, cars, seconds * 1000L);
+            } catch (OutOfMemoryError e) {
+                System.out.printf("%-7d out of memory starting threads%n", cars);
+                break;
+            }
+            round.print(System.out, cars);
+            if (!round.isSustained()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Starts the given number of cars, lets them run for durationMs of wall time, then stops them all.
+     */
+    static Round run(CarThreadMode mode, int carCount, long durationMs) throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram lateness = registry.histogram("car_tick_lateness_seconds", "Tick lateness across the fleet");
+        AtomicLong skipped = new AtomicLong();
+        ThreadFactory threads = CarThreads.newFactory(mode, "car-");
+        List<CarRunner> runners = new ArrayList<>(carCount);
+        List<TrafficInputProvider> riders = new ArrayList<>(carCount);
+
+        LogLevel logLevel = Log.getLevel();
+        Log.setLevel(LogLevel.OFF);   // Thousands of cars narrating would be the bottleneck
+        try {
+            for (int i = 0; i < carCount; i++) {
+                PacedClock clock = new PacedClock();
+                TrafficInputProvider traffic = new TrafficInputProvider(clock, TrafficPattern.values()[i % TrafficPattern.values().length],
+                        PASSENGERS_PER_HOUR, i, PassengerElevator.MIN_FLOOR_NUMBER, PassengerElevator.LOBBY_FLOOR_NUMBER,
+                        PassengerElevator.MAX_FLOOR_NUMBER);
+                PassengerElevator car = new PassengerElevator(traffic, null, clock);
+                traffic.attach(car);
+
+                CarRunner runner = new CarRunner(car, traffic, TICK_MS);
+                runner.setStartDelayMs(i * TICK_MS / carCount);            // Spread the fleet across the tick period
+                runner.getEngine().setTickListener((latenessNanos, workNanos, skippedTicks) -> {
+                    lateness.record(latenessNanos);
+                    skipped.addAndGet(skippedTicks);
+                });
+                runners.add(runner);
+                riders.add(traffic);
+            }
+
+            for (CarRunner runner : runners) {
+                runner.start(threads);
+            }
+            Thread.sleep(durationMs);
+            Runtime runtime = Runtime.getRuntime();
+            long heapBytes = runtime.totalMemory() - runtime.freeMemory();
+
+            for (CarRunner runner : runners) {
+                runner.stop();
+            }
+            for (CarRunner runner : runners) {
+                runner.join();
+            }
+
+            Round round = new Round();
+            round.ticks = lateness.getCount();
+            round.p50Nanos = lateness.valueAtQuantile(0.5);
+            round.p99Nanos = lateness.valueAtQuantile(0.99);
+            round.maxNanos = lateness.getMax();
+            round.skippedTicks = skipped.get();
+            round.heapBytes = heapBytes;
+            for (TrafficInputProvider traffic : riders) {
+                for (Passenger passenger : traffic.getPassengers()) {
+                    if (passenger.hasAlighted()) {
+                        round.ridersDelivered++;
+                    }
+                }
+            }
+            return round;
+        } finally {
+            Log.setLevel(logLevel);
+        }
+    }
+
+    static class Round {
+        long ticks;
+        long p50Nanos;
+        long p99Nanos;
+        long maxNanos;
+        long skippedTicks;
+        long ridersDelivered;
+        long heapBytes;
+
+        boolean isSustained() {
+            return skippedTicks == 0 && p99Nanos <= LATE_LIMIT_MS * 1_000_000;
+        }
+
+        void print(PrintStream out, int cars) {
+            out.printf("%-7d %9d %9.2f %9.2f %9.2f %8d %9d %9d  %s%n", cars, ticks,
+                    p50Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6, skippedTicks, ridersDelivered,
+                    heapBytes >> 20, isSustained() ? "yes" : "NO");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.dispatch.EtaCostPolicy;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.io.PrintStream;
+
+/**
+ * Replays the same seeded passenger traces through each per-car dispatch strategy (LOOK, SCAN, SSTF,
+ * DEADLINE) and compares wait and journey times. Average wait rewards SSTF, the tail (p99/max) shows
+ * what it costs the riders it keeps passing over. Runs on virtual time in the building from
+ * -Delevator.building (or the default one).
+ *
+ * Usage: DispatchStrategyBenchmark [passengersPerHour] [hours] [seed] [cars]
+ */
+public class DispatchStrategyBenchmark {
+
+    private static final String[] TRAFFIC = {"MIXED", "UP_PEAK", "LUNCH", "DOWN_PEAK"};
+
+    public static void main(String[] args) {
+        int passengersPerHour = args.length > 0 ? Integer.parseInt(args[0]) : 150;
+        int hours = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        int carCount = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        Building building = Building.fromSystemProperty();
+
+        LogLevel logLevel = Log.getLevel();
+        Log.setLevel(LogLevel.OFF);   // Elevator chatter would dominate run time
+        try {
+            System.out.printf("Dispatch strategy benchmark: %d passengers/hour for %d hour(s), %d car(s), floors %d-%d, seed %d%n",
+                    passengersPerHour, hours, carCount, building.getMinFloor(), building.getMaxFloor(), seed);
+            System.out.printf("%-10s %-9s %10s %10s %10s %12s %12s %8s%n",
+                    "Traffic", "Strategy", "AvgWait s", "P99Wait s", "MaxWait s", "AvgJourney s", "P99Journey s", "Served");
+            for (String traffic : TRAFFIC) {
+                TrafficPattern pattern = traffic.equals("MIXED") ? null : TrafficPattern.valueOf(traffic);
+                for (DispatchAlgorithm algorithm : DispatchAlgorithm.values()) {
+                    GroupDispatchBenchmark.Result result = GroupDispatchBenchmark.run(new EtaCostPolicy(), carCount,
+                            GroupDispatchBenchmark.trace(pattern, passengersPerHour, hours, seed, building), false,
+                            building, algorithm);
+                    printRow(System.out, traffic, algorithm, result);
+                }
+            }
+        } finally {
+            Log.setLevel(logLevel);
+        }
+    }
+
+    private static void printRow(PrintStream console, String traffic, DispatchAlgorithm algorithm, GroupDispatchBenchmark.Result result) {
+        console.printf("%-10s %-9s %10.1f %10.1f %10.1f %12.1f %12.1f %8d%n",
+                traffic, algorithm,
+                result.waits.getAverage() / 1000.0, result.waits.percentile(99) / 1000.0, result.waits.getMax() / 1000.0,
+                result.journeys.getAverage() / 1000.0, result.journeys.percentile(99) / 1000.0,
+                result.journeys.getCount());
+    }
+}
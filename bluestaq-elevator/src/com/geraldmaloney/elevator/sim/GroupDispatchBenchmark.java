@@ -0,0 +1,283 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.ElevatorStatus;
+import com.geraldmaloney.elevator.HallCallDirection;
+import com.geraldmaloney.elevator.PassengerElevator;
+import com.geraldmaloney.elevator.clock.VirtualClock;
+import com.geraldmaloney.elevator.dispatch.CarSelectionPolicy;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.dispatch.EtaCostPolicy;
+import com.geraldmaloney.elevator.dispatch.GroupController;
+import com.geraldmaloney.elevator.dispatch.NearestCarPolicy;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays the same seeded passenger trace through a bank of cars with each car selection policy
+ * and compares average/p99 wait and journey times. Runs on virtual time, so hours of traffic take seconds.
+ * Riders press Up/Down at the landing, except in the DestDispatch rows where they key in their destination
+ * and the group controller groups riders going to the same floor.
+ *
+ * Usage: GroupDispatchBenchmark [passengersPerHour] [hours] [seed] [MIXED|UP_PEAK|LUNCH|DOWN_PEAK]
+ */
+public class GroupDispatchBenchmark {
+
+    private static final long TICK_MS = 1000;                       // Same tick rate as Main
+    private static final long DRAIN_LIMIT_MS = 6 * 60 * 60 * 1000L; // Give up if riders are still stuck this long after the trace ends
+    private static final int[] CAR_COUNTS = {4, 6, 8};
+
+    public static void main(String[] args) {
+        int passengersPerHour = args.length > 0 ? Integer.parseInt(args[0]) : 600;
+        int hours = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        String traffic = args.length > 3 ? args[3].toUpperCase() : "MIXED";
+        TrafficPattern pattern = traffic.equals("MIXED") ? null : TrafficPattern.valueOf(traffic);
+
+        LogLevel logLevel = Log.getLevel();
+        Log.setLevel(LogLevel.OFF);   // Elevator chatter would dominate run time
+        try {
+            System.out.printf("Group dispatch benchmark: %d passengers/hour for %d hour(s), %s traffic, seed %d%n", passengersPerHour, hours, traffic, seed);
+            System.out.printf("%-6s %-12s %10s %10s %12s %12s %8s%n", "Cars", "Policy", "AvgWait s", "P99Wait s", "AvgJourney s", "P99Journey s", "Served");
+            for (int carCount : CAR_COUNTS) {
+                printRow(System.out, carCount, "NearestCar", run(new NearestCarPolicy(), carCount, trace(pattern, passengersPerHour, hours, seed), false));
+                printRow(System.out, carCount, "EtaCost", run(new EtaCostPolicy(), carCount, trace(pattern, passengersPerHour, hours, seed), false));
+                printRow(System.out, carCount, "DestDispatch", run(new EtaCostPolicy(), carCount, trace(pattern, passengersPerHour, hours, seed), true));
+            }
+        } finally {
+            Log.setLevel(logLevel);
+        }
+    }
+
+    private static void printRow(PrintStream console, int carCount, String policyName, Result result) {
+        console.printf("%-6d %-12s %10.1f %10.1f %12.1f %12.1f %8d%n",
+                carCount, policyName,
+                result.waits.getAverage() / 1000.0, result.waits.percentile(99) / 1000.0,
+                result.journeys.getAverage() / 1000.0, result.journeys.percentile(99) / 1000.0,
+                result.journeys.getCount());
+    }
+
+    private static List<Passenger> trace(TrafficPattern pattern, int passengersPerHour, int hours, long seed) {
+        return trace(pattern, passengersPerHour, hours, seed, Building.standard());
+    }
+
+    /**
+     * @param pattern traffic shape, or null for the mixed trace
+     */
+    static List<Passenger> trace(TrafficPattern pattern, int passengersPerHour, int hours, long seed, Building building) {
+        return pattern == null
+                ? generateTrace(passengersPerHour, hours, seed, building)
+                : generateTrace(pattern, passengersPerHour, hours, seed, building);
+    }
+
+    /**
+     * Builds a trace shaped by a traffic pattern (e.g. UP_PEAK) over the default floor range.
+     */
+    static List<Passenger> generateTrace(TrafficPattern pattern, int passengersPerHour, int hours, long seed) {
+        return generateTrace(pattern, passengersPerHour, hours, seed, Building.standard());
+    }
+
+    /**
+     * Builds a trace shaped by a traffic pattern over the building's floors. Riders only start from and
+     * head for floors the cars serve; anything else is drawn again.
+     */
+    static List<Passenger> generateTrace(TrafficPattern pattern, int passengersPerHour, int hours, long seed, Building building) {
+        int minFloor = building.getMinFloor();
+        int lobbyFloor = building.getLobbyFloor();
+        int maxFloor = building.getMaxFloor();
+        Random random = new Random(seed);
+        List<Passenger> trace = new ArrayList<>();
+        double meanGapMs = 3_600_000.0 / passengersPerHour;
+        long end = hours * 3_600_000L;
+        long time = 0;
+        while (true) {
+            time += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapMs);
+            if (time >= end) {
+                break;
+            }
+            // Walk the per-floor shares to pick the origin
+            int origin;
+            do {
+                double pick = random.nextDouble();
+                origin = maxFloor;
+                for (int floor = minFloor; floor <= maxFloor; floor++) {
+                    pick -= pattern.originShare(floor, minFloor, lobbyFloor, maxFloor);
+                    if (pick < 0) {
+                        origin = floor;
+                        break;
+                    }
+                }
+            } while (!building.isServed(origin));
+            int destination;
+            do {
+                destination = pattern.pickDestination(origin, minFloor, lobbyFloor, maxFloor, random);
+            } while (!building.isServed(destination));
+            trace.add(new Passenger(origin, destination, time));
+        }
+        return trace;
+    }
+
+    /**
+     * Builds a mixed trace: Poisson arrivals, half of them to or from the lobby, the rest between random floors.
+     */
+    static List<Passenger> generateTrace(int passengersPerHour, int hours, long seed) {
+        return generateTrace(passengersPerHour, hours, seed, Building.standard());
+    }
+
+    static List<Passenger> generateTrace(int passengersPerHour, int hours, long seed, Building building) {
+        Random random = new Random(seed);
+        List<Passenger> trace = new ArrayList<>();
+        double meanGapMs = 3_600_000.0 / passengersPerHour;
+        long end = hours * 3_600_000L;
+        long time = 0;
+        while (true) {
+            time += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapMs);
+            if (time >= end) {
+                break;
+            }
+            int origin;
+            int destination;
+            do {
+                boolean lobbyTrip = random.nextBoolean();
+                int other = randomFloor(random, building);
+                if (lobbyTrip && random.nextBoolean()) {
+                    origin = building.getLobbyFloor();
+                    destination = other;
+                } else if (lobbyTrip) {
+                    origin = other;
+                    destination = building.getLobbyFloor();
+                } else {
+                    origin = other;
+                    destination = randomFloor(random, building);
+                }
+            } while (origin == destination);
+            trace.add(new Passenger(origin, destination, time));
+        }
+        return trace;
+    }
+
+    private static int randomFloor(Random random, Building building) {
+        int floor;
+        do {
+            floor = building.getMinFloor() + random.nextInt(building.getMaxFloor() - building.getMinFloor() + 1);
+        } while (!building.isServed(floor));
+        return floor;
+    }
+
+    /**
+     * Runs the trace through a fresh bank of cars. Each car has its own virtual clock so a car
+     * blocked on a door cycle doesn't hold up the others; the car furthest behind in time always moves next.
+     */
+    static Result run(CarSelectionPolicy policy, int carCount, List<Passenger> trace, boolean destinationDispatch) {
+        return run(policy, carCount, trace, destinationDispatch, Building.standard(), DispatchAlgorithm.fromSystemProperty());
+    }
+
+    /**
+     * Same, in the given building with every car scheduling its calls with the given algorithm.
+     */
+    static Result run(CarSelectionPolicy policy, int carCount, List<Passenger> trace, boolean destinationDispatch,
+                      Building building, DispatchAlgorithm algorithm) {
+        List<PassengerElevator> cars = new ArrayList<>();
+        List<VirtualClock> clocks = new ArrayList<>();
+        List<List<Passenger>> waiting = new ArrayList<>();  // Riders assigned to each car, not yet picked up
+        List<List<Passenger>> riding = new ArrayList<>();   // Riders inside each car
+        Result result = new Result();
+
+        for (int i = 0; i < carCount; i++) {
+            VirtualClock clock = new VirtualClock();
+            PassengerElevator car = new PassengerElevator(null, null, clock, building);
+            car.setDispatchStrategy(algorithm.create());
+            List<Passenger> carWaiting = new ArrayList<>();
+            List<Passenger> carRiding = new ArrayList<>();
+            car.addArrivalListener((elevator, floor) -> exchangePassengers(elevator, floor, clock.currentTimeMillis(), carWaiting, carRiding, result));
+            cars.add(car);
+            clocks.add(clock);
+            waiting.add(carWaiting);
+            riding.add(carRiding);
+        }
+        GroupController group = new GroupController(cars, policy);
+
+        long traceEnd = trace.isEmpty() ? 0 : trace.get(trace.size() - 1).getArrivalTimeMs();
+        int next = 0;
+        long simTime = 0;
+
+        while (result.delivered < trace.size() && simTime < traceEnd + DRAIN_LIMIT_MS) {
+            while (next < trace.size() && trace.get(next).getArrivalTimeMs() <= simTime) {
+                Passenger passenger = trace.get(next++);
+                int carIndex = destinationDispatch
+                        ? group.assignDestinationCall(passenger.getOrigin(), passenger.getDestination())
+                        : group.assignHallCall(passenger.getOrigin(), HallCallDirection.between(passenger.getOrigin(), passenger.getDestination()));
+                AbstractElevator car = cars.get(carIndex);
+                if (car.getCurrentFloor() == passenger.getOrigin() && car.getElevatorStatus() == ElevatorStatus.STOPPED) {
+                    // Car is already at the floor - rider steps straight in
+                    passenger.board(simTime);
+                    riding.get(carIndex).add(passenger);
+                    car.pressFloor(passenger.getDestination());
+                } else {
+                    waiting.get(carIndex).add(passenger);
+                }
+            }
+
+            int lagging = 0;
+            for (int i = 1; i < carCount; i++) {
+                if (clocks.get(i).currentTimeMillis() < clocks.get(lagging).currentTimeMillis()) {
+                    lagging = i;
+                }
+            }
+            cars.get(lagging).goToNextFloor();
+            clocks.get(lagging).sleep(TICK_MS);
+
+            simTime = Long.MAX_VALUE;
+            for (VirtualClock clock : clocks) {
+                simTime = Math.min(simTime, clock.currentTimeMillis());
+            }
+        }
+
+        for (Passenger passenger : trace) {
+            if (passenger.hasBoarded()) {
+                result.waits.record(passenger.getWaitMs());
+            }
+            if (passenger.hasAlighted()) {
+                result.journeys.record(passenger.getJourneyMs());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops off riders bound for this floor and picks up riders assigned to this car on this floor.
+     */
+    private static void exchangePassengers(AbstractElevator car, int floor, long now, List<Passenger> waiting, List<Passenger> riding, Result result) {
+        riding.removeIf(passenger -> {
+            if (passenger.getDestination() == floor) {
+                passenger.alight(now);
+                result.delivered++;
+                return true;
+            }
+            return false;
+        });
+        waiting.removeIf(passenger -> {
+            // Board only if this stop answered the passenger's hall call, i.e. the car is going their way
+            if (passenger.getOrigin() == floor
+                    && !car.hasHallCall(floor, HallCallDirection.between(passenger.getOrigin(), passenger.getDestination()))) {
+                passenger.board(now);
+                riding.add(passenger);
+                car.pressFloor(passenger.getDestination());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    static class Result {
+        final LatencyStats waits = new LatencyStats();
+        final LatencyStats journeys = new LatencyStats();
+        int delivered = 0;
+    }
+}
@@ -0,0 +1,57 @@
+package com.geraldmaloney.elevator.sim;
+
+import java.util.Arrays;
+
+/**
+ * Collects millisecond samples and reports average and percentiles.
+ * Backed by a growable primitive array so large runs don't box millions of Longs.
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count = 0;
+    private boolean sorted = true;
+
+    public void record(long valueMs) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = valueMs;
+        sorted = false;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getAverage() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return (double) total / count;
+    }
+
+    public long getMax() {
+        return count == 0 ? 0 : percentile(100);
+    }
+
+    /**
+     * @param percent percentile to report, e.g. 99 or 99.9
+     * @return the nearest-rank percentile of the recorded samples, or 0 if there are none
+     */
+    public long percentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * count);
+        return samples[Math.max(0, Math.min(count - 1, rank - 1))];
+    }
+}
@@ -0,0 +1,62 @@
+package com.geraldmaloney.elevator.sim;
+
+/**
+ * One simulated rider: shows up at a floor at a given time and wants to go to another floor.
+ * Board and alight times are filled in as the simulation runs (-1 until then).
+ */
+public class Passenger {
+
+    private final int origin;
+    private final int destination;
+    private final long arrivalTimeMs;       // When the rider pressed the hall button
+    private long boardTimeMs = -1;          // When a car picked the rider up
+    private long alightTimeMs = -1;         // When the rider got off at the destination
+
+    public Passenger(int origin, int destination, long arrivalTimeMs) {
+        this.origin = origin;
+        this.destination = destination;
+        this.arrivalTimeMs = arrivalTimeMs;
+    }
+
+    public int getOrigin() {
+        return origin;
+    }
+
+    public int getDestination() {
+        return destination;
+    }
+
+    public long getArrivalTimeMs() {
+        return arrivalTimeMs;
+    }
+
+    public void board(long timeMs) {
+        this.boardTimeMs = timeMs;
+    }
+
+    public void alight(long timeMs) {
+        this.alightTimeMs = timeMs;
+    }
+
+    public boolean hasBoarded() {
+        return boardTimeMs != -1;
+    }
+
+    public boolean hasAlighted() {
+        return alightTimeMs != -1;
+    }
+
+    /**
+     * @return time from pressing the hall button until a car picked the rider up
+     */
+    public long getWaitMs() {
+        return boardTimeMs - arrivalTimeMs;
+    }
+
+    /**
+     * @return time from pressing the hall button until getting off at the destination
+     */
+    public long getJourneyMs() {
+        return alightTimeMs - arrivalTimeMs;
+    }
+}
@@ -0,0 +1,91 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.dispatch.DispatchAlgorithm;
+import com.geraldmaloney.elevator.dispatch.EtaCostPolicy;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Heavy one-directional load: a steady stream of riders going up from the lobby to the floors just above it,
+ * plus a trickle of riders calling from the upper floors to come down. The stream keeps a car busy (and its
+ * doors held) at the bottom of the building; the interesting numbers are the p99/p999/max waits of the trickle.
+ * Runs every dispatch strategy on the same trace, on virtual time, in the building from -Delevator.building.
+ *
+ * Usage: StarvationStressBenchmark [streamPerHour] [tricklePerHour] [hours] [seed] [cars]
+ */
+public class StarvationStressBenchmark {
+
+    private static final int STREAM_FLOORS = 4;             // Stream riders go at most this many floors above the lobby
+
+    public static void main(String[] args) {
+        int streamPerHour = args.length > 0 ? Integer.parseInt(args[0]) : 1200;
+        int tricklePerHour = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int hours = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        int carCount = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        Building building = Building.fromSystemProperty();
+
+        LogLevel logLevel = Log.getLevel();
+        Log.setLevel(LogLevel.OFF);   // Elevator chatter would dominate run time
+        try {
+            System.out.printf("Starvation stress: %d/hour up from the lobby, %d/hour down from above, %d hour(s), %d car(s), seed %d%n",
+                    streamPerHour, tricklePerHour, hours, carCount, seed);
+            System.out.printf("%-9s %10s %10s %10s %10s %10s %12s %8s%n",
+                    "Strategy", "AvgWait s", "P50Wait s", "P99Wait s", "P999Wait s", "MaxWait s", "AvgJourney s", "Served");
+            for (DispatchAlgorithm algorithm : DispatchAlgorithm.values()) {
+                List<Passenger> trace = generateTrace(streamPerHour, tricklePerHour, hours, seed, building);
+                GroupDispatchBenchmark.Result result = GroupDispatchBenchmark.run(new EtaCostPolicy(), carCount, trace, false, building, algorithm);
+                System.out.printf("%-9s %10.1f %10.1f %10.1f %10.1f %10.1f %12.1f %8d/%d%n",
+                        algorithm,
+                        result.waits.getAverage() / 1000.0, result.waits.percentile(50) / 1000.0,
+                        result.waits.percentile(99) / 1000.0, result.waits.percentile(99.9) / 1000.0,
+                        result.waits.getMax() / 1000.0, result.journeys.getAverage() / 1000.0,
+                        result.journeys.getCount(), trace.size());
+            }
+        } finally {
+            Log.setLevel(logLevel);
+        }
+    }
+
+    /**
+     * Two merged Poisson streams: lobby to one of the next few served floors up, and any served floor
+     * above those down to the lobby.
+     */
+    static List<Passenger> generateTrace(int streamPerHour, int tricklePerHour, int hours, long seed, Building building) {
+        Random random = new Random(seed);
+        int lobby = building.getLobbyFloor();
+        int streamTop = Math.min(building.getMaxFloor(), lobby + STREAM_FLOORS);
+        if (streamTop >= building.getMaxFloor()) {
+            throw new IllegalArgumentException("Building needs floors above " + streamTop + " for the down trickle.");
+        }
+        List<Passenger> trace = new ArrayList<>();
+        double streamGapMs = 3_600_000.0 / streamPerHour;
+        double trickleGapMs = 3_600_000.0 / tricklePerHour;
+        long end = hours * 3_600_000L;
+        long nextStream = (long) (-Math.log(1.0 - random.nextDouble()) * streamGapMs);
+        long nextTrickle = (long) (-Math.log(1.0 - random.nextDouble()) * trickleGapMs);
+        while (Math.min(nextStream, nextTrickle) < end) {
+            if (nextStream <= nextTrickle) {
+                trace.add(new Passenger(lobby, servedFloor(random, building, lobby + 1, streamTop), nextStream));
+                nextStream += (long) (-Math.log(1.0 - random.nextDouble()) * streamGapMs);
+            } else {
+                trace.add(new Passenger(servedFloor(random, building, streamTop + 1, building.getMaxFloor()), lobby, nextTrickle));
+                nextTrickle += (long) (-Math.log(1.0 - random.nextDouble()) * trickleGapMs);
+            }
+        }
+        return trace;
+    }
+
+    private static int servedFloor(Random random, Building building, int low, int high) {
+        int floor;
+        do {
+            floor = low + random.nextInt(high - low + 1);
+        } while (!building.isServed(floor));
+        return floor;
+    }
+}
@@ -0,0 +1,180 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.AbstractElevator;
+import com.geraldmaloney.elevator.ArrivalListener;
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.clock.ElevatorClock;
+import com.geraldmaloney.elevator.input.InputProvider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic InputProvider that plays riders instead of a person at the keypad.
+ * Every floor has its own Poisson arrival stream (rate set by the TrafficPattern); a new rider presses
+ * their floor as a hall call, and when the car stops for them they board and press their destination.
+ * Seeded, so the same settings always produce the same stream of presses.
+ *
+ * Call attach() with the car before the first tick so riders can see where it is.
+ */
+public class TrafficInputProvider implements InputProvider, ArrivalListener {
+
+    private final ElevatorClock clock;
+    private final TrafficPattern pattern;
+    private final Random random;
+    private final int minFloor;
+    private final int lobbyFloor;
+    private final int maxFloor;
+    private final Building building;            // Riders only start from and head for served floors
+
+    private final double[] meanGapMs;           // Mean time between arrivals per floor (Poisson process)
+    private final long[] nextArrivalMs;         // Next arrival time per floor
+    private long generateUntilMs = Long.MAX_VALUE;
+
+    private final Deque<String> pendingInputs = new ArrayDeque<>();
+    private final List<Passenger> passengers = new ArrayList<>();   // Everyone generated so far
+    private final List<Passenger> waiting = new ArrayList<>();      // At a hall, not picked up yet
+    private final List<Passenger> riding = new ArrayList<>();       // In the car
+    private AbstractElevator car;
+
+    public TrafficInputProvider(ElevatorClock clock, TrafficPattern pattern, double passengersPerHour, long seed,
+                                int minFloor, int lobbyFloor, int maxFloor) {
+        this(clock, pattern, passengersPerHour, seed, Building.standard(minFloor, lobbyFloor, maxFloor));
+    }
+
+    public TrafficInputProvider(ElevatorClock clock, TrafficPattern pattern, double passengersPerHour, long seed,
+                                Building building) {
+        this.clock = clock;
+        this.pattern = pattern;
+        this.random = new Random(seed);
+        this.building = building;
+        this.minFloor = building.getMinFloor();
+        this.lobbyFloor = building.getLobbyFloor();
+        this.maxFloor = building.getMaxFloor();
+
+        // Pattern shares over the served floors only, scaled back up so the total rate stays as offered
+        int floorCount = maxFloor - minFloor + 1;
+        double servedShare = 0;
+        for (int floor = minFloor; floor <= maxFloor; floor++) {
+            if (building.isServed(floor)) {
+                servedShare += pattern.originShare(floor, minFloor, lobbyFloor, maxFloor);
+            }
+        }
+        this.meanGapMs = new double[floorCount];
+        this.nextArrivalMs = new long[floorCount];
+        long now = clock.currentTimeMillis();
+        for (int i = 0; i < floorCount; i++) {
+            double share = building.isServed(minFloor + i) ? pattern.originShare(minFloor + i, minFloor, lobbyFloor, maxFloor) / servedShare : 0;
+            double perHour = passengersPerHour * share;
+            meanGapMs[i] = perHour > 0 ? 3_600_000.0 / perHour : Double.POSITIVE_INFINITY;
+            nextArrivalMs[i] = now + nextGap(i);
+        }
+    }
+
+    /**
+     * Connects the riders to the car they will call and board.
+     */
+    public void attach(AbstractElevator car) {
+        this.car = car;
+        car.addArrivalListener(this);
+    }
+
+    /**
+     * Stops new riders from showing up after the given clock time, so a run can drain.
+     */
+    public void stopGeneratingAt(long timeMs) {
+        this.generateUntilMs = timeMs;
+    }
+
+    @Override
+    public String getNextInput() {
+        generateArrivals(clock.currentTimeMillis());
+        return pendingInputs.poll();
+    }
+
+    @Override
+    public void onArrival(AbstractElevator elevator, int floor) {
+        long now = clock.currentTimeMillis();
+        riding.removeIf(passenger -> {
+            if (passenger.getDestination() == floor) {
+                passenger.alight(now);
+                return true;
+            }
+            return false;
+        });
+        waiting.removeIf(passenger -> {
+            if (passenger.getOrigin() == floor) {
+                board(passenger, now);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void generateArrivals(long now) {
+        for (int i = 0; i < nextArrivalMs.length; i++) {
+            while (nextArrivalMs[i] <= now && nextArrivalMs[i] < generateUntilMs) {
+                int origin = minFloor + i;
+                int destination;
+                do {
+                    destination = pattern.pickDestination(origin, minFloor, lobbyFloor, maxFloor, random);
+                } while (!building.isServed(destination));
+                Passenger passenger = new Passenger(origin, destination, nextArrivalMs[i]);
+                passengers.add(passenger);
+                callCar(passenger, now);
+                nextArrivalMs[i] += nextGap(i);
+            }
+        }
+    }
+
+    /**
+     * Rider presses the hall button, or steps straight in if the car is already at their floor.
+     */
+    private void callCar(Passenger passenger, long now) {
+        if (car != null && car.getCurrentFloor() == passenger.getOrigin()) {
+            board(passenger, now);
+        } else {
+            waiting.add(passenger);
+            pendingInputs.add(String.valueOf(passenger.getOrigin()));
+        }
+    }
+
+    private void board(Passenger passenger, long now) {
+        passenger.board(now);
+        riding.add(passenger);
+        pendingInputs.add(String.valueOf(passenger.getDestination()));
+    }
+
+    /**
+     * Exponentially distributed gap for the floor's Poisson stream.
+     */
+    private long nextGap(int floorIndex) {
+        if (Double.isInfinite(meanGapMs[floorIndex])) {
+            return Long.MAX_VALUE / 2;
+        }
+        return Math.max(1, (long) (-Math.log(1.0 - random.nextDouble()) * meanGapMs[floorIndex]));
+    }
+
+    public List<Passenger> getPassengers() {
+        return Collections.unmodifiableList(passengers);
+    }
+
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public int getRidingCount() {
+        return riding.size();
+    }
+
+    /**
+     * @return true once every generated rider has reached their destination
+     */
+    public boolean isDrained() {
+        return waiting.isEmpty() && riding.isEmpty() && pendingInputs.isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.geraldmaloney.elevator.sim;
+
+import java.util.Random;
+
+/**
+ * Building traffic profiles used by TrafficInputProvider.
+ * Each pattern sets how much of the traffic starts at the lobby and where riders from other floors go.
+ */
+public enum TrafficPattern {
+    UP_PEAK(0.85, 0.50),        // Morning: nearly everyone arrives at the lobby and heads up
+    LUNCH(0.45, 0.50),          // Two-way: out to lunch and back, plus some interfloor trips
+    DOWN_PEAK(0.05, 0.90);      // Evening: everyone heads down to the lobby
+
+    private final double lobbyOriginShare;      // Fraction of all arrivals that start at the lobby
+    private final double toLobbyShare;          // Fraction of riders from other floors who are going to the lobby
+
+    TrafficPattern(double lobbyOriginShare, double toLobbyShare) {
+        this.lobbyOriginShare = lobbyOriginShare;
+        this.toLobbyShare = toLobbyShare;
+    }
+
+    /**
+     * Share of the building's total arrival rate that starts on this floor.
+     */
+    public double originShare(int floor, int minFloor, int lobbyFloor, int maxFloor) {
+        int otherFloors = maxFloor - minFloor;
+        if (floor == lobbyFloor) {
+            return otherFloors == 0 ? 1.0 : lobbyOriginShare;
+        }
+        return (1.0 - lobbyOriginShare) / otherFloors;
+    }
+
+    /**
+     * Picks where a rider starting on the given floor wants to go. Never returns the origin.
+     */
+    public int pickDestination(int origin, int minFloor, int lobbyFloor, int maxFloor, Random random) {
+        if (origin != lobbyFloor && random.nextDouble() < toLobbyShare) {
+            return lobbyFloor;
+        }
+        int destination;
+        do {
+            destination = minFloor + random.nextInt(maxFloor - minFloor + 1);
+        } while (destination == origin || (origin != lobbyFloor && destination == lobbyFloor && maxFloor - minFloor > 1));
+        return destination;
+    }
+}
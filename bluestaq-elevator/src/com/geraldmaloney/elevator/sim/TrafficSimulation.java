@@ -0,0 +1,171 @@
+package com.geraldmaloney.elevator.sim;
+
+import com.geraldmaloney.elevator.Building;
+import com.geraldmaloney.elevator.DwellMode;
+import com.geraldmaloney.elevator.PassengerElevator;
+import com.geraldmaloney.elevator.clock.VirtualClock;
+import com.geraldmaloney.elevator.log.Log;
+import com.geraldmaloney.elevator.log.LogLevel;
+
+import java.io.PrintStream;
+
+/**
+ * Headless load test: drives one PassengerElevator with synthetic traffic on virtual time and reports
+ * throughput, wait times and queue depth. No keypad, LCD or wall-clock waiting involved.
+ *
+ * Usage: TrafficSimulation [pattern|ALL] [passengersPerHour] [hours] [seed] [maxFloor]
+ * With -Delevator.building=file the building comes from the descriptor and maxFloor is ignored.
+ * Each pattern runs with the -Delevator.dwell mode (ADAPTIVE by default) and again with FIXED dwell on the
+ * same riders, and reports the round-trip time the adaptive dwell saves.
+ */
+public class TrafficSimulation {
+
+    private static final long TICK_MS = 1000;                       // Same tick rate as Main
+    private static final long SAMPLE_MS = 60_000;                   // Queue depth sample interval
+    private static final long REPORT_EVERY_MS = 15 * 60_000;        // Queue depth rows printed in the report
+    private static final long DRAIN_LIMIT_MS = 4 * 60 * 60 * 1000L;
+
+    public static void main(String[] args) {
+        String patternArg = args.length > 0 ? args[0].toUpperCase() : "ALL";
+        double passengersPerHour = args.length > 1 ? Double.parseDouble(args[1]) : 120;
+        int hours = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42L;
+        int maxFloor = args.length > 4 ? Integer.parseInt(args[4]) : PassengerElevator.MAX_FLOOR_NUMBER;
+        Building building = System.getProperty(Building.PROPERTY) != null
+                ? Building.fromSystemProperty()
+                : Building.standard(PassengerElevator.MIN_FLOOR_NUMBER, PassengerElevator.LOBBY_FLOOR_NUMBER, maxFloor);
+        System.out.println(building);
+
+        TrafficPattern[] patterns = patternArg.equals("ALL") ? TrafficPattern.values() : new TrafficPattern[]{TrafficPattern.valueOf(patternArg)};
+        DwellMode dwellMode = DwellMode.fromSystemProperty();
+        for (TrafficPattern pattern : patterns) {
+            Report report = run(pattern, passengersPerHour, hours * 3_600_000L, seed, building, dwellMode);
+            report.print(System.out, pattern, passengersPerHour, seed);
+            if (dwellMode != DwellMode.FIXED) {
+                Report fixed = run(pattern, passengersPerHour, hours * 3_600_000L, seed, building, DwellMode.FIXED);
+                report.printDwellSavings(System.out, fixed);
+            }
+        }
+    }
+
+    /**
+     * Runs one pattern until the traffic window closes and every rider has been delivered (or the drain limit hits).
+     */
+    public static Report run(TrafficPattern pattern, double passengersPerHour, long durationMs, long seed,
+                             int minFloor, int lobbyFloor, int maxFloor) {
+        return run(pattern, passengersPerHour, durationMs, seed, Building.standard(minFloor, lobbyFloor, maxFloor));
+    }
+
+    public static Report run(TrafficPattern pattern, double passengersPerHour, long durationMs, long seed, Building building) {
+        return run(pattern, passengersPerHour, durationMs, seed, building, DwellMode.fromSystemProperty());
+    }
+
+    public static Report run(TrafficPattern pattern, double passengersPerHour, long durationMs, long seed, Building building,
+                             DwellMode dwellMode) {
+        VirtualClock clock = new VirtualClock();
+        TrafficInputProvider traffic = new TrafficInputProvider(clock, pattern, passengersPerHour, seed, building);
+        PassengerElevator elevator = new PassengerElevator(traffic, null, clock, building);
+        elevator.setDwellMode(dwellMode);
+        traffic.attach(elevator);
+        traffic.stopGeneratingAt(durationMs);
+
+        Report report = new Report();
+        long nextSample = 0;
+
+        LogLevel logLevel = Log.getLevel();
+        Log.setLevel(LogLevel.OFF);   // Elevator chatter would dominate run time
+        try {
+            while (clock.currentTimeMillis() < durationMs
+                    || (!traffic.isDrained() && clock.currentTimeMillis() < durationMs + DRAIN_LIMIT_MS)) {
+                elevator.goToNextFloor();
+
+                String input;
+                while ((input = traffic.getNextInput()) != null) {
+                    elevator.handleInput(input);
+                }
+
+                while (clock.currentTimeMillis() >= nextSample) {
+                    report.waitingDepth.record(traffic.getWaitingCount());
+                    report.queueDepth.record(elevator.getRequestCount());
+                    if (nextSample % REPORT_EVERY_MS == 0) {
+                        report.timeline.append(String.format("  %3d min  waiting=%-4d queued floors=%d%n",
+                                nextSample / 60_000, traffic.getWaitingCount(), elevator.getRequestCount()));
+                    }
+                    nextSample += SAMPLE_MS;
+                }
+
+                clock.sleep(TICK_MS);
+            }
+        } finally {
+            Log.setLevel(logLevel);
+        }
+
+        report.elapsedMs = clock.currentTimeMillis();
+        report.dwellMode = dwellMode;
+        report.stops = elevator.getDoorDwell().getStopCount();
+        report.averageStopMs = elevator.getDoorDwell().getAverageStopMs();
+        for (Passenger passenger : traffic.getPassengers()) {
+            report.generated++;
+            if (passenger.hasBoarded()) {
+                report.waits.record(passenger.getWaitMs());
+            }
+            if (passenger.hasAlighted()) {
+                report.journeys.record(passenger.getJourneyMs());
+            }
+        }
+        return report;
+    }
+
+    public static class Report {
+        final LatencyStats waits = new LatencyStats();
+        final LatencyStats journeys = new LatencyStats();
+        final LatencyStats waitingDepth = new LatencyStats();   // Riders waiting at halls, sampled once a minute
+        final LatencyStats queueDepth = new LatencyStats();     // Floors queued in the car, sampled once a minute
+        final StringBuilder timeline = new StringBuilder();
+        int generated;
+        long elapsedMs;
+        DwellMode dwellMode;
+        long stops;
+        double averageStopMs;                                   // Arrival until ready to move off
+
+        public double getThroughputPerHour() {
+            return elapsedMs == 0 ? 0 : journeys.getCount() * 3_600_000.0 / elapsedMs;
+        }
+
+        public LatencyStats getWaits() {
+            return waits;
+        }
+
+        public LatencyStats getJourneys() {
+            return journeys;
+        }
+
+        void print(PrintStream out, TrafficPattern pattern, double passengersPerHour, long seed) {
+            out.printf("=== %s: %.0f passengers/hour offered, seed %d ===%n", pattern, passengersPerHour, seed);
+            out.printf("Delivered %d of %d riders in %.1f min -> %.1f passengers/hour%n",
+                    journeys.getCount(), generated, elapsedMs / 60_000.0, getThroughputPerHour());
+            out.printf("Wait     avg %6.1f s   p99 %6.1f s   max %6.1f s%n",
+                    waits.getAverage() / 1000.0, waits.percentile(99) / 1000.0, waits.getMax() / 1000.0);
+            out.printf("Journey  avg %6.1f s   p99 %6.1f s   max %6.1f s%n",
+                    journeys.getAverage() / 1000.0, journeys.percentile(99) / 1000.0, journeys.getMax() / 1000.0);
+            out.printf("Depth    waiting avg %.1f max %d | queued floors avg %.1f max %d%n",
+                    waitingDepth.getAverage(), waitingDepth.getMax(), queueDepth.getAverage(), queueDepth.getMax());
+            out.printf("Stops    %d with %s dwell, avg %.1f s each%n", stops, dwellMode, averageStopMs / 1000.0);
+            out.print(timeline);
+        }
+
+        /**
+         * Compares this run against the same riders on fixed dwell: time per stop, and the round trip
+         * (hall button to destination) each rider gets back.
+         */
+        void printDwellSavings(PrintStream out, Report fixed) {
+            double stopSavedMs = fixed.averageStopMs - averageStopMs;
+            double journeySavedMs = fixed.journeys.getAverage() - journeys.getAverage();
+            out.printf("Dwell    %s vs FIXED: stop %.1f s -> %.1f s (%.1f s saved), round trip avg %.1f s -> %.1f s (%.1f s, %.0f%% saved), p99 %.1f s -> %.1f s%n",
+                    dwellMode, fixed.averageStopMs / 1000.0, averageStopMs / 1000.0, stopSavedMs / 1000.0,
+                    fixed.journeys.getAverage() / 1000.0, journeys.getAverage() / 1000.0, journeySavedMs / 1000.0,
+                    fixed.journeys.getAverage() == 0 ? 0 : 100.0 * journeySavedMs / fixed.journeys.getAverage(),
+                    fixed.journeys.percentile(99) / 1000.0, journeys.percentile(99) / 1000.0);
+        }
+    }
+}